@@ -0,0 +1,9 @@
+package com.drallinger.sqlite;
+
+import java.sql.SQLException;
+
+public interface AggregateFunction<A> {
+    A initialize();
+    A step(A accumulator, Object[] arguments) throws SQLException;
+    Object finish(A accumulator) throws SQLException;
+}
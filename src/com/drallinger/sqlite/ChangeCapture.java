@@ -0,0 +1,110 @@
+package com.drallinger.sqlite;
+
+import org.sqlite.SQLiteCommitListener;
+import org.sqlite.SQLiteConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class ChangeCapture {
+    private static final Pattern SAVEPOINT_STATEMENT = Pattern.compile(
+        "^\\s*(SAVEPOINT|RELEASE|ROLLBACK(?:\\s+TRANSACTION)?\\s+TO)(?:\\s+SAVEPOINT)?\\s+(?:\"((?:[^\"]|\"\")+)\"|`([^`]+)`|\\[([^\\]]+)]|'([^']+)'|([^\\s;]+))",
+        Pattern.CASE_INSENSITIVE
+    );
+    private final SQLiteDatabase database;
+    private final ArrayList<ChangeEvent> pendingChanges;
+    private final ArrayList<SavepointMark> savepoints;
+
+    ChangeCapture(SQLiteDatabase database){
+        this.database = database;
+        pendingChanges = new ArrayList<>();
+        savepoints = new ArrayList<>();
+    }
+
+    private static class SavepointMark{
+        private final String name;
+        private final int changeCount;
+
+        private SavepointMark(String name, int changeCount){
+            this.name = name;
+            this.changeCount = changeCount;
+        }
+    }
+
+    void install(Connection connection) throws SQLException{
+        SQLiteConnection sqliteConnection = connection.unwrap(SQLiteConnection.class);
+        sqliteConnection.addUpdateListener((type, databaseName, tableName, rowID) -> {
+            if(!database.hasChangeListeners()){
+                return;
+            }
+            ChangeEvent.Operation operation = ChangeEvent.Operation.valueOf(type.name());
+            synchronized(pendingChanges){
+                pendingChanges.add(new ChangeEvent(databaseName, tableName, operation, rowID));
+            }
+        });
+        sqliteConnection.addCommitListener(new SQLiteCommitListener(){
+            @Override
+            public void onCommit(){
+                List<ChangeEvent> changes;
+                synchronized(pendingChanges){
+                    savepoints.clear();
+                    if(pendingChanges.isEmpty()){
+                        return;
+                    }
+                    changes = List.copyOf(pendingChanges);
+                    pendingChanges.clear();
+                }
+                database.dispatchChanges(changes);
+            }
+
+            @Override
+            public void onRollback(){
+                clear();
+            }
+        });
+    }
+
+    void trackSavepoint(String query){
+        Matcher matcher = SAVEPOINT_STATEMENT.matcher(query);
+        if(!matcher.find()){
+            return;
+        }
+        String command = matcher.group(1).toUpperCase();
+        String name = null;
+        for(int group = 2; name == null; group++){
+            name = matcher.group(group);
+        }
+        name = name.replace("\"\"", "\"");
+        synchronized(pendingChanges){
+            if(command.equals("SAVEPOINT")){
+                savepoints.add(new SavepointMark(name, pendingChanges.size()));
+                return;
+            }
+            int index = savepoints.size() - 1;
+            while(index >= 0 && !savepoints.get(index).name.equalsIgnoreCase(name)){
+                index--;
+            }
+            if(index < 0){
+                return;
+            }
+            if(command.startsWith("ROLLBACK")){
+                SavepointMark savepoint = savepoints.get(index);
+                pendingChanges.subList(Math.min(savepoint.changeCount, pendingChanges.size()), pendingChanges.size()).clear();
+                savepoints.subList(index + 1, savepoints.size()).clear();
+            }else{
+                savepoints.subList(index, savepoints.size()).clear();
+            }
+        }
+    }
+
+    void clear(){
+        synchronized(pendingChanges){
+            pendingChanges.clear();
+            savepoints.clear();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.drallinger.sqlite;
+
+public class ChangeEvent {
+    public enum Operation{
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+    private final String databaseName;
+    private final String tableName;
+    private final Operation operation;
+    private final long rowID;
+
+    ChangeEvent(String databaseName, String tableName, Operation operation, long rowID){
+        this.databaseName = databaseName;
+        this.tableName = tableName;
+        this.operation = operation;
+        this.rowID = rowID;
+    }
+
+    public String getDatabaseName(){
+        return databaseName;
+    }
+
+    public String getTableName(){
+        return tableName;
+    }
+
+    public Operation getOperation(){
+        return operation;
+    }
+
+    public long getRowID(){
+        return rowID;
+    }
+}
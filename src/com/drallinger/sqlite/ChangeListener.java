@@ -0,0 +1,8 @@
+package com.drallinger.sqlite;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface ChangeListener {
+    void onChanges(List<ChangeEvent> changes);
+}
@@ -0,0 +1,50 @@
+package com.drallinger.sqlite;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+class ChunkedDelete {
+    private static final long MIN_PAUSE = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private ChunkedDelete(){}
+
+    static long run(Connection connection, String tableName, String where, int batchSize, long pause, long deadline) throws SQLException{
+        if(!connection.getAutoCommit()){
+            throw new IllegalStateException("Cannot run a chunked delete inside an open transaction");
+        }
+        StringBuilder query = new StringBuilder("DELETE FROM ");
+        query.append(tableName).append(" WHERE rowid IN (SELECT rowid FROM ").append(tableName).append(" ");
+        if(where != null && !where.isEmpty()){
+            query.append("WHERE ").append(where).append(" ");
+        }
+        query.append("LIMIT ?);");
+        long deleted = 0;
+        try(PreparedStatement statement = connection.prepareStatement(query.toString())){
+            statement.setInt(1, batchSize);
+            while(true){
+                long chunkStart = System.nanoTime();
+                int chunk = statement.executeUpdate();
+                long chunkTime = System.nanoTime() - chunkStart;
+                deleted += chunk;
+                if(chunk < batchSize || (deadline > 0 && System.currentTimeMillis() >= deadline)){
+                    return deleted;
+                }
+                if(!pauseBetweenChunks(pause > 0 ? TimeUnit.MILLISECONDS.toNanos(pause) : Math.max(chunkTime, MIN_PAUSE))){
+                    return deleted;
+                }
+            }
+        }
+    }
+
+    private static boolean pauseBetweenChunks(long pause){
+        try{
+            TimeUnit.NANOSECONDS.sleep(pause);
+            return true;
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.drallinger.sqlite;
+
+import java.util.Iterator;
+
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+    @Override
+    void close();
+}
@@ -0,0 +1,172 @@
+package com.drallinger.sqlite;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+
+public class ColumnarQueryResult {
+    private final String[] columnNames;
+    private final long[][] longColumns;
+    private final double[][] doubleColumns;
+    private final BitSet[] nulls;
+    private final int rowCount;
+
+    private ColumnarQueryResult(String[] columnNames, long[][] longColumns, double[][] doubleColumns, BitSet[] nulls, int rowCount){
+        this.columnNames = columnNames;
+        this.longColumns = longColumns;
+        this.doubleColumns = doubleColumns;
+        this.nulls = nulls;
+        this.rowCount = rowCount;
+    }
+
+    public static ColumnarQueryResult empty(){
+        return new ColumnarQueryResult(new String[0], new long[0][], new double[0][], new BitSet[0], 0);
+    }
+
+    public static ColumnarQueryResult fromResultSet(ResultSet resultSet) throws SQLException{
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] columnNames = new String[columnCount];
+        long[][] longColumns = new long[columnCount][];
+        double[][] doubleColumns = new double[columnCount][];
+        BitSet[] nulls = new BitSet[columnCount];
+        int capacity = 16;
+        for(int i = 0; i < columnCount; i++){
+            columnNames[i] = metaData.getColumnLabel(i + 1);
+            nulls[i] = new BitSet();
+            switch(metaData.getColumnType(i + 1)){
+                case Types.INTEGER, Types.BIGINT, Types.SMALLINT, Types.TINYINT, Types.BOOLEAN, Types.BIT -> longColumns[i] = new long[capacity];
+                case Types.REAL, Types.FLOAT, Types.DOUBLE -> doubleColumns[i] = new double[capacity];
+                default -> {}
+            }
+        }
+        int rowCount = 0;
+        while(resultSet.next()){
+            if(rowCount == capacity){
+                capacity += capacity >> 1;
+                for(int i = 0; i < columnCount; i++){
+                    if(longColumns[i] != null){
+                        longColumns[i] = Arrays.copyOf(longColumns[i], capacity);
+                    }else if(doubleColumns[i] != null){
+                        doubleColumns[i] = Arrays.copyOf(doubleColumns[i], capacity);
+                    }
+                }
+            }
+            for(int i = 0; i < columnCount; i++){
+                int column = i + 1;
+                if(longColumns[i] != null){
+                    long value = resultSet.getLong(column);
+                    if(resultSet.wasNull()){
+                        nulls[i].set(rowCount);
+                    }else if((value == 0 && !isIntegerValue(resultSet.getObject(column))) || resultSet.getDouble(column) != value){
+                        throw mismatch(columnNames[i], "an integer", resultSet.getObject(column));
+                    }else{
+                        longColumns[i][rowCount] = value;
+                    }
+                }else if(doubleColumns[i] != null){
+                    double value = resultSet.getDouble(column);
+                    if(resultSet.wasNull()){
+                        nulls[i].set(rowCount);
+                    }else if(value == 0 && !(resultSet.getObject(column) instanceof Number)){
+                        throw mismatch(columnNames[i], "a number", resultSet.getObject(column));
+                    }else{
+                        doubleColumns[i][rowCount] = value;
+                    }
+                }else{
+                    Object value = resultSet.getObject(column);
+                    if(value == null){
+                        nulls[i].set(rowCount);
+                    }else if(isIntegerValue(value)){
+                        longColumns[i] = new long[capacity];
+                        longColumns[i][rowCount] = ((Number) value).longValue();
+                    }else if(value instanceof Double || value instanceof Float){
+                        doubleColumns[i] = new double[capacity];
+                        doubleColumns[i][rowCount] = ((Number) value).doubleValue();
+                    }else{
+                        throw mismatch(columnNames[i], "a number", value);
+                    }
+                }
+            }
+            rowCount++;
+        }
+        for(int i = 0; i < columnCount; i++){
+            if(doubleColumns[i] != null){
+                doubleColumns[i] = Arrays.copyOf(doubleColumns[i], rowCount);
+            }else{
+                longColumns[i] = longColumns[i] != null ? Arrays.copyOf(longColumns[i], rowCount) : new long[rowCount];
+            }
+        }
+        return new ColumnarQueryResult(columnNames, longColumns, doubleColumns, nulls, rowCount);
+    }
+
+    private static boolean isIntegerValue(Object value){
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static SQLException mismatch(String columnName, String expected, Object value){
+        String type = value == null ? "null" : value.getClass().getSimpleName();
+        return new SQLException("Column " + columnName + " expected " + expected + " but found " + type + " value " + value);
+    }
+
+    public boolean isEmpty(){
+        return rowCount == 0;
+    }
+
+    public int size(){
+        return rowCount;
+    }
+
+    public int getColumnCount(){
+        return columnNames.length;
+    }
+
+    public String getColumnName(int column){
+        return columnNames[column];
+    }
+
+    public int getColumnIndex(String columnName){
+        for(int i = 0; i < columnNames.length; i++){
+            if(columnNames[i].equalsIgnoreCase(columnName)){
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column " + columnName);
+    }
+
+    public boolean isLongColumn(int column){
+        return longColumns[column] != null;
+    }
+
+    public boolean isNull(int row, int column){
+        return nulls[column].get(row);
+    }
+
+    public long getLong(int row, int column){
+        return longColumns[column] != null ? longColumns[column][row] : (long) doubleColumns[column][row];
+    }
+
+    public double getDouble(int row, int column){
+        return longColumns[column] != null ? longColumns[column][row] : doubleColumns[column][row];
+    }
+
+    public long[] getLongColumn(int column){
+        if(longColumns[column] == null){
+            throw new IllegalArgumentException("Column " + columnNames[column] + " is not an integer column");
+        }
+        return longColumns[column].clone();
+    }
+
+    public double[] getDoubleColumn(int column){
+        if(doubleColumns[column] != null){
+            return doubleColumns[column].clone();
+        }
+        double[] values = new double[rowCount];
+        for(int row = 0; row < rowCount; row++){
+            values[row] = longColumns[column][row];
+        }
+        return values;
+    }
+}
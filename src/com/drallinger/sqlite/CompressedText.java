@@ -0,0 +1,43 @@
+package com.drallinger.sqlite;
+
+public class CompressedText implements CharSequence {
+    private final byte[] bytes;
+    private final CompressionDictionary dictionary;
+    private String text;
+
+    CompressedText(byte[] bytes, CompressionDictionary dictionary){
+        this.bytes = bytes;
+        this.dictionary = dictionary;
+    }
+
+    public int getCompressedLength(){
+        return bytes.length;
+    }
+
+    public String getText(){
+        if(text == null){
+            text = Compression.decompress(bytes, dictionary);
+        }
+        return text;
+    }
+
+    @Override
+    public int length(){
+        return getText().length();
+    }
+
+    @Override
+    public char charAt(int index){
+        return getText().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end){
+        return getText().subSequence(start, end);
+    }
+
+    @Override
+    public String toString(){
+        return getText();
+    }
+}
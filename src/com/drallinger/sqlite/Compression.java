@@ -0,0 +1,137 @@
+package com.drallinger.sqlite;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public final class Compression {
+    private static final byte FORMAT_STORED = 0;
+    private static final byte FORMAT_DEFLATE = 1;
+    private static final byte FORMAT_DEFLATE_DICTIONARY = 2;
+    private static final int MIN_COMPRESSED_LENGTH = 64;
+    private static final int HEADER_SIZE = 1 + Integer.BYTES;
+    private static final int DICTIONARY_HEADER_SIZE = HEADER_SIZE + Integer.BYTES;
+    private static final int MAX_DEFLATE_RATIO = 1032;
+    private static final int MAX_TEXT_LENGTH = 1 << 30;
+
+    private Compression(){}
+
+    public static byte[] compress(String text){
+        return compress(text, null);
+    }
+
+    public static byte[] compress(String text, CompressionDictionary dictionary){
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        if(input.length < MIN_COMPRESSED_LENGTH){
+            return ByteBuffer.allocate(HEADER_SIZE + input.length).put(FORMAT_STORED).putInt(input.length).put(input).array();
+        }
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try{
+            if(dictionary != null){
+                deflater.setDictionary(dictionary.getBytesUnsafe());
+            }
+            deflater.setInput(input);
+            deflater.finish();
+            int headerSize = dictionary != null ? DICTIONARY_HEADER_SIZE : HEADER_SIZE;
+            ByteArrayOutputStream output = new ByteArrayOutputStream(headerSize + input.length / 2);
+            ByteBuffer header = ByteBuffer.allocate(headerSize);
+            header.put(dictionary != null ? FORMAT_DEFLATE_DICTIONARY : FORMAT_DEFLATE).putInt(input.length);
+            if(dictionary != null){
+                header.putInt(dictionary.getID());
+            }
+            output.writeBytes(header.array());
+            byte[] buffer = new byte[Math.max(256, input.length / 2)];
+            while(!deflater.finished()){
+                int length = deflater.deflate(buffer);
+                output.write(buffer, 0, length);
+            }
+            if(output.size() >= HEADER_SIZE + input.length){
+                return ByteBuffer.allocate(HEADER_SIZE + input.length).put(FORMAT_STORED).putInt(input.length).put(input).array();
+            }
+            return output.toByteArray();
+        }finally{
+            deflater.end();
+        }
+    }
+
+    public static String decompress(byte[] bytes){
+        return decompress(bytes, null);
+    }
+
+    public static String decompress(byte[] bytes, CompressionDictionary dictionary){
+        if(bytes == null){
+            return null;
+        }
+        if(bytes.length < HEADER_SIZE){
+            throw new IllegalArgumentException("Truncated compressed value");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        int length = buffer.getInt();
+        if(length < 0 || length > MAX_TEXT_LENGTH){
+            throw new IllegalArgumentException("Corrupt compressed value length " + length);
+        }
+        if(format == FORMAT_STORED){
+            if(length != bytes.length - HEADER_SIZE){
+                throw new IllegalArgumentException("Corrupt compressed value length " + length);
+            }
+            return new String(bytes, HEADER_SIZE, length, StandardCharsets.UTF_8);
+        }
+        if(format == FORMAT_DEFLATE_DICTIONARY){
+            if(bytes.length < DICTIONARY_HEADER_SIZE){
+                throw new IllegalArgumentException("Truncated compressed value");
+            }
+            int dictionaryID = buffer.getInt();
+            if(dictionary == null || dictionary.getID() != dictionaryID){
+                throw new IllegalArgumentException("Compressed value requires dictionary " + dictionaryID);
+            }
+        }else if(format != FORMAT_DEFLATE){
+            throw new IllegalArgumentException("Unknown compression format " + format);
+        }
+        if(length > (long) (bytes.length - buffer.position()) * MAX_DEFLATE_RATIO){
+            throw new IllegalArgumentException("Corrupt compressed value length " + length);
+        }
+        Inflater inflater = new Inflater();
+        try{
+            inflater.setInput(bytes, buffer.position(), bytes.length - buffer.position());
+            byte[] output = new byte[length];
+            int offset = 0;
+            while(offset < length){
+                int inflated = inflater.inflate(output, offset, length - offset);
+                if(inflated == 0 && inflater.needsDictionary()){
+                    inflater.setDictionary(dictionary.getBytesUnsafe());
+                }else if(inflated == 0 && (inflater.finished() || inflater.needsInput())){
+                    throw new IllegalArgumentException("Truncated compressed value");
+                }
+                offset += inflated;
+            }
+            return new String(output, StandardCharsets.UTF_8);
+        }catch(DataFormatException e){
+            throw new IllegalArgumentException("Corrupt compressed value: " + e.getMessage());
+        }finally{
+            inflater.end();
+        }
+    }
+
+    public static Integer getDictionaryID(byte[] bytes){
+        if(bytes == null || bytes.length < DICTIONARY_HEADER_SIZE || bytes[0] != FORMAT_DEFLATE_DICTIONARY){
+            return null;
+        }
+        return ByteBuffer.wrap(bytes, HEADER_SIZE, Integer.BYTES).getInt();
+    }
+
+    public static CompressedText readText(ResultSet resultSet, String column) throws SQLException{
+        return readText(resultSet, column, null);
+    }
+
+    public static CompressedText readText(ResultSet resultSet, String column, CompressionDictionary dictionary) throws SQLException{
+        byte[] bytes = resultSet.getBytes(column);
+        return bytes == null ? null : new CompressedText(bytes, dictionary);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.drallinger.sqlite;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Adler32;
+
+public class CompressionDictionary {
+    public static final int MAX_SIZE = 32 * 1024;
+    private static final int SHINGLE_SIZE = 8;
+    private final byte[] bytes;
+    private final int id;
+
+    public CompressionDictionary(byte[] bytes){
+        if(bytes.length > MAX_SIZE){
+            bytes = Arrays.copyOfRange(bytes, bytes.length - MAX_SIZE, bytes.length);
+        }
+        this.bytes = bytes.clone();
+        Adler32 checksum = new Adler32();
+        checksum.update(this.bytes);
+        id = (int) checksum.getValue();
+    }
+
+    public static CompressionDictionary train(Iterable<String> samples, int size){
+        HashMap<String, Integer> counts = new HashMap<>();
+        for(String sample : samples){
+            for(int i = 0; i + SHINGLE_SIZE <= sample.length(); i += SHINGLE_SIZE / 2){
+                counts.merge(sample.substring(i, i + SHINGLE_SIZE), 1, Integer::sum);
+            }
+        }
+        ArrayList<Map.Entry<String, Integer>> shingles = new ArrayList<>(counts.entrySet());
+        shingles.removeIf(shingle -> shingle.getValue() < 2);
+        shingles.sort((a, b) -> Integer.compare(a.getValue(), b.getValue()));
+        int limit = Math.min(size, MAX_SIZE);
+        int first = shingles.size();
+        int length = 0;
+        while(first > 0 && length + SHINGLE_SIZE <= limit){
+            length += shingles.get(--first).getKey().length();
+        }
+        StringBuilder dictionary = new StringBuilder(length);
+        for(int i = first; i < shingles.size(); i++){
+            dictionary.append(shingles.get(i).getKey());
+        }
+        return new CompressionDictionary(dictionary.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public byte[] getBytes(){
+        return bytes.clone();
+    }
+
+    public int getID(){
+        return id;
+    }
+
+    byte[] getBytesUnsafe(){
+        return bytes;
+    }
+}
@@ -0,0 +1,30 @@
+package com.drallinger.sqlite;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.drallinger.sqlite.Connection")
+@Label("SQLite Connection")
+@Category("SQLite")
+class ConnectionEvent extends Event {
+    @Label("File Name")
+    String fileName;
+
+    @Label("Role")
+    String role;
+
+    @Label("Operation")
+    String operation;
+
+    void finish(String fileName, String role, String operation){
+        end();
+        if(shouldCommit()){
+            this.fileName = fileName;
+            this.role = role;
+            this.operation = operation;
+            commit();
+        }
+    }
+}
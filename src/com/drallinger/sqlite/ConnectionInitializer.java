@@ -0,0 +1,9 @@
+package com.drallinger.sqlite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@FunctionalInterface
+interface ConnectionInitializer {
+    void initialize(Connection connection) throws SQLException;
+}
@@ -0,0 +1,261 @@
+package com.drallinger.sqlite;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CounterBuffer implements AutoCloseable {
+    private final ConcurrentHashMap<CounterKey, LongAdder> counters;
+    private final long flushInterval;
+    private final int maxFlushFailures;
+    private final boolean flushOnShutdown;
+    private SQLiteDatabase database;
+    private Connection connection;
+    private ScheduledExecutorService executor;
+    private Thread shutdownHook;
+    private volatile boolean closed;
+    private volatile SQLException flushFailure;
+    private int flushFailures;
+
+    private CounterBuffer(Builder builder){
+        counters = new ConcurrentHashMap<>(builder.expectedKeys);
+        flushInterval = builder.flushInterval;
+        maxFlushFailures = builder.maxFlushFailures;
+        flushOnShutdown = builder.flushOnShutdown;
+    }
+
+    public static CounterBuffer.Builder createBuilder(){
+        return new Builder();
+    }
+
+    public static class Builder{
+        private long flushInterval = 1000;
+        private int expectedKeys = 4096;
+        private int maxFlushFailures = 5;
+        private boolean flushOnShutdown = true;
+
+        private Builder(){}
+
+        public Builder setFlushInterval(long flushInterval){
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public Builder setExpectedKeys(int expectedKeys){
+            this.expectedKeys = expectedKeys;
+            return this;
+        }
+
+        public Builder setMaxFlushFailures(int maxFlushFailures){
+            this.maxFlushFailures = maxFlushFailures;
+            return this;
+        }
+
+        public Builder flushOnShutdown(boolean flushOnShutdown){
+            this.flushOnShutdown = flushOnShutdown;
+            return this;
+        }
+
+        public CounterBuffer build() throws IllegalArgumentException{
+            if(flushInterval <= 0){
+                throw new IllegalArgumentException("CounterBuffer flush interval must be positive");
+            }
+            if(maxFlushFailures <= 0){
+                throw new IllegalArgumentException("CounterBuffer max flush failures must be positive");
+            }
+            return new CounterBuffer(this);
+        }
+    }
+
+    private static class CounterKey{
+        private final String tableName;
+        private final String keyColumn;
+        private final Object key;
+        private final String column;
+        private final int hash;
+
+        private CounterKey(String tableName, String keyColumn, Object key, String column){
+            this.tableName = tableName;
+            this.keyColumn = keyColumn;
+            this.key = key;
+            this.column = column;
+            hash = Objects.hash(tableName, keyColumn, key, column);
+        }
+
+        private String updateQuery(){
+            return "UPDATE " + tableName + " SET " + column + " = " + column + " + ? WHERE " + keyColumn + " = ?;";
+        }
+
+        @Override
+        public boolean equals(Object other){
+            if(!(other instanceof CounterKey counterKey)){
+                return false;
+            }
+            return tableName.equals(counterKey.tableName) && keyColumn.equals(counterKey.keyColumn)
+                && key.equals(counterKey.key) && column.equals(counterKey.column);
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+    }
+
+    void start(SQLiteDatabase database) throws SQLException{
+        this.database = database;
+        connection = database.openBackgroundConnection();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SQLiteDatabase-counters");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        if(flushOnShutdown){
+            shutdownHook = new Thread(this::flushQuietly, "SQLiteDatabase-counters-shutdown");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+    }
+
+    public void increment(String tableName, String keyColumn, long key, String column){
+        add(tableName, keyColumn, key, column, 1);
+    }
+
+    public void increment(String tableName, String keyColumn, String key, String column){
+        add(tableName, keyColumn, key, column, 1);
+    }
+
+    public void add(String tableName, String keyColumn, long key, String column, long delta){
+        add(new CounterKey(tableName, keyColumn, key, column), delta);
+    }
+
+    public void add(String tableName, String keyColumn, String key, String column, long delta){
+        add(new CounterKey(tableName, keyColumn, key, column), delta);
+    }
+
+    public long getPending(String tableName, String keyColumn, long key, String column){
+        return getPending(new CounterKey(tableName, keyColumn, key, column));
+    }
+
+    public long getPending(String tableName, String keyColumn, String key, String column){
+        return getPending(new CounterKey(tableName, keyColumn, key, column));
+    }
+
+    public SQLException getFlushFailure(){
+        return flushFailure;
+    }
+
+    private void add(CounterKey counterKey, long delta){
+        if(closed){
+            throw new IllegalStateException("Counter buffer is closed");
+        }
+        SQLException failure = flushFailure;
+        if(failure != null){
+            throw new IllegalStateException("Counter buffer stopped after " + maxFlushFailures + " failed flushes: " + failure.getMessage(), failure);
+        }
+        accumulate(counterKey, delta);
+    }
+
+    private void accumulate(CounterKey counterKey, long delta){
+        counters.compute(counterKey, (key, adder) -> {
+            if(adder == null){
+                adder = new LongAdder();
+            }
+            adder.add(delta);
+            return adder;
+        });
+    }
+
+    private long getPending(CounterKey counterKey){
+        LongAdder adder = counters.get(counterKey);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public synchronized int flush() throws SQLException{
+        HashMap<CounterKey, Long> drained = new HashMap<>();
+        for(Map.Entry<CounterKey, LongAdder> counter : counters.entrySet()){
+            long delta = counter.getValue().sumThenReset();
+            if(delta != 0){
+                drained.put(counter.getKey(), delta);
+            }else{
+                counters.computeIfPresent(counter.getKey(), (key, adder) -> adder.sum() == 0 ? null : adder);
+            }
+        }
+        if(drained.isEmpty()){
+            return 0;
+        }
+        HashMap<String, ArrayList<Map.Entry<CounterKey, Long>>> batches = new HashMap<>();
+        for(Map.Entry<CounterKey, Long> counter : drained.entrySet()){
+            batches.computeIfAbsent(counter.getKey().updateQuery(), query -> new ArrayList<>()).add(counter);
+        }
+        try(Statement statement = connection.createStatement()){
+            statement.execute("BEGIN IMMEDIATE;");
+            try{
+                for(Map.Entry<String, ArrayList<Map.Entry<CounterKey, Long>>> batch : batches.entrySet()){
+                    try(PreparedStatement update = connection.prepareStatement(batch.getKey())){
+                        for(Map.Entry<CounterKey, Long> counter : batch.getValue()){
+                            update.setLong(1, counter.getValue());
+                            update.setObject(2, counter.getKey().key);
+                            update.addBatch();
+                        }
+                        update.executeBatch();
+                    }
+                }
+                statement.execute("COMMIT;");
+            }catch(SQLException e){
+                statement.execute("ROLLBACK;");
+                throw e;
+            }
+        }catch(SQLException e){
+            for(Map.Entry<CounterKey, Long> counter : drained.entrySet()){
+                accumulate(counter.getKey(), counter.getValue());
+            }
+            if(++flushFailures >= maxFlushFailures){
+                flushFailure = e;
+            }
+            throw e;
+        }
+        flushFailures = 0;
+        flushFailure = null;
+        return drained.size();
+    }
+
+    private void flushQuietly(){
+        try{
+            flush();
+        }catch(SQLException e){
+            System.err.println("Failed to flush counters: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close(){
+        if(closed){
+            return;
+        }
+        closed = true;
+        executor.shutdown();
+        if(shutdownHook != null){
+            try{
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            }catch(IllegalStateException e){
+                // the JVM is already shutting down and the hook will flush
+            }
+        }
+        flushQuietly();
+        try{
+            database.closeBackgroundConnection(connection);
+        }catch(SQLException e){
+            System.err.println("Failed to close counter connection: " + e.getMessage());
+        }
+    }
+}
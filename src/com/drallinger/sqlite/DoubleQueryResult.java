@@ -0,0 +1,68 @@
+package com.drallinger.sqlite;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+public class DoubleQueryResult extends PrimitiveQueryResult {
+    private final double[] values;
+
+    private DoubleQueryResult(Builder builder){
+        super(builder);
+        values = Arrays.copyOf(builder.values, builder.getSize());
+    }
+
+    public static DoubleQueryResult fromResultSet(ResultSet resultSet, int column) throws SQLException{
+        Builder builder = new Builder();
+        while(resultSet.next()){
+            double value = resultSet.getDouble(column);
+            if(resultSet.wasNull()){
+                builder.addNull();
+            }else{
+                builder.add(value);
+            }
+        }
+        return builder.build();
+    }
+
+    public static class Builder extends PrimitiveQueryResult.Builder<Builder>{
+        private double[] values = new double[16];
+
+        public Builder add(double value){
+            values[nextIndex()] = value;
+            return this;
+        }
+
+        public DoubleQueryResult build(){
+            return new DoubleQueryResult(this);
+        }
+
+        @Override
+        int capacity(){
+            return values.length;
+        }
+
+        @Override
+        void grow(int capacity){
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        Builder self(){
+            return this;
+        }
+    }
+
+    public double get(int index){
+        return values[index];
+    }
+
+    public double[] toArray(){
+        return values.clone();
+    }
+
+    public DoubleStream stream(){
+        return Arrays.stream(values);
+    }
+}
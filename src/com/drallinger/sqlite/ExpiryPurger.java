@@ -0,0 +1,138 @@
+package com.drallinger.sqlite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ExpiryPurger {
+    private final ArrayList<ExpiryRule> rules;
+    private final TimeUnit timestampUnit;
+    private final int batchSize;
+    private final long chunkPause;
+    private final long interval;
+    private final long timeBudget;
+    private SQLiteDatabase database;
+    private Connection connection;
+    private ScheduledExecutorService executor;
+    private int nextRule;
+
+    private ExpiryPurger(Builder builder){
+        rules = new ArrayList<>(builder.rules);
+        timestampUnit = builder.timestampUnit;
+        batchSize = builder.batchSize;
+        chunkPause = builder.chunkPause;
+        interval = builder.interval;
+        timeBudget = builder.timeBudget;
+        nextRule = 0;
+    }
+
+    public static ExpiryPurger.Builder createBuilder(){
+        return new Builder();
+    }
+
+    public static class Builder{
+        private final ArrayList<ExpiryRule> rules = new ArrayList<>();
+        private TimeUnit timestampUnit = TimeUnit.MILLISECONDS;
+        private int batchSize = 1000;
+        private long chunkPause = 0;
+        private long interval = 10_000;
+        private long timeBudget = 200;
+
+        private Builder(){}
+
+        public Builder addTable(String tableName, String timestampColumn, long retention, TimeUnit retentionUnit){
+            rules.add(new ExpiryRule(tableName, timestampColumn, retentionUnit.toMillis(retention)));
+            return this;
+        }
+
+        public Builder setTimestampUnit(TimeUnit timestampUnit){
+            this.timestampUnit = timestampUnit;
+            return this;
+        }
+
+        public Builder setBatchSize(int batchSize){
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder setChunkPause(long chunkPause){
+            this.chunkPause = chunkPause;
+            return this;
+        }
+
+        public Builder setInterval(long interval){
+            this.interval = interval;
+            return this;
+        }
+
+        public Builder setTimeBudget(long timeBudget){
+            this.timeBudget = timeBudget;
+            return this;
+        }
+
+        public ExpiryPurger build() throws IllegalArgumentException{
+            if(rules.isEmpty()){
+                throw new IllegalArgumentException("ExpiryPurger has no tables");
+            }
+            if(batchSize <= 0 || interval <= 0 || timeBudget <= 0){
+                throw new IllegalArgumentException("ExpiryPurger batch size, interval and time budget must be positive");
+            }
+            return new ExpiryPurger(this);
+        }
+    }
+
+    private static class ExpiryRule{
+        private final String tableName;
+        private final String timestampColumn;
+        private final long retention;
+
+        private ExpiryRule(String tableName, String timestampColumn, long retention){
+            this.tableName = tableName;
+            this.timestampColumn = timestampColumn;
+            this.retention = retention;
+        }
+    }
+
+    void start(SQLiteDatabase database) throws SQLException{
+        this.database = database;
+        connection = database.openBackgroundConnection();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SQLiteDatabase-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::runCycle, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    void stop(){
+        executor.shutdown();
+        try{
+            executor.awaitTermination(timeBudget * 2, TimeUnit.MILLISECONDS);
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }finally{
+            try{
+                database.closeBackgroundConnection(connection);
+            }catch(SQLException e){
+                System.err.println("Failed to close expiry connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private void runCycle(){
+        long deadline = System.currentTimeMillis() + timeBudget;
+        for(int i = 0; i < rules.size() && System.currentTimeMillis() < deadline; i++){
+            ExpiryRule rule = rules.get(nextRule);
+            nextRule = (nextRule + 1) % rules.size();
+            long cutoff = timestampUnit.convert(System.currentTimeMillis() - rule.retention, TimeUnit.MILLISECONDS);
+            try{
+                ChunkedDelete.run(connection, rule.tableName, rule.timestampColumn + " < " + cutoff, batchSize, chunkPause, deadline);
+            }catch(SQLException e){
+                System.err.println("Failed to purge expired rows from " + rule.tableName + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.drallinger.sqlite;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class IntQueryResult extends PrimitiveQueryResult {
+    private final int[] values;
+
+    private IntQueryResult(Builder builder){
+        super(builder);
+        values = Arrays.copyOf(builder.values, builder.getSize());
+    }
+
+    public static IntQueryResult fromResultSet(ResultSet resultSet, int column) throws SQLException{
+        Builder builder = new Builder();
+        while(resultSet.next()){
+            int value = resultSet.getInt(column);
+            if(resultSet.wasNull()){
+                builder.addNull();
+            }else{
+                builder.add(value);
+            }
+        }
+        return builder.build();
+    }
+
+    public static class Builder extends PrimitiveQueryResult.Builder<Builder>{
+        private int[] values = new int[16];
+
+        public Builder add(int value){
+            values[nextIndex()] = value;
+            return this;
+        }
+
+        public IntQueryResult build(){
+            return new IntQueryResult(this);
+        }
+
+        @Override
+        int capacity(){
+            return values.length;
+        }
+
+        @Override
+        void grow(int capacity){
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        Builder self(){
+            return this;
+        }
+    }
+
+    public int get(int index){
+        return values[index];
+    }
+
+    public int[] toArray(){
+        return values.clone();
+    }
+
+    public IntStream stream(){
+        return Arrays.stream(values);
+    }
+}
@@ -0,0 +1,68 @@
+package com.drallinger.sqlite;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+public class LongQueryResult extends PrimitiveQueryResult {
+    private final long[] values;
+
+    private LongQueryResult(Builder builder){
+        super(builder);
+        values = Arrays.copyOf(builder.values, builder.getSize());
+    }
+
+    public static LongQueryResult fromResultSet(ResultSet resultSet, int column) throws SQLException{
+        Builder builder = new Builder();
+        while(resultSet.next()){
+            long value = resultSet.getLong(column);
+            if(resultSet.wasNull()){
+                builder.addNull();
+            }else{
+                builder.add(value);
+            }
+        }
+        return builder.build();
+    }
+
+    public static class Builder extends PrimitiveQueryResult.Builder<Builder>{
+        private long[] values = new long[16];
+
+        public Builder add(long value){
+            values[nextIndex()] = value;
+            return this;
+        }
+
+        public LongQueryResult build(){
+            return new LongQueryResult(this);
+        }
+
+        @Override
+        int capacity(){
+            return values.length;
+        }
+
+        @Override
+        void grow(int capacity){
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        Builder self(){
+            return this;
+        }
+    }
+
+    public long get(int index){
+        return values[index];
+    }
+
+    public long[] toArray(){
+        return values.clone();
+    }
+
+    public LongStream stream(){
+        return Arrays.stream(values);
+    }
+}
@@ -0,0 +1,229 @@
+package com.drallinger.sqlite;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class MaintenanceScheduler {
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+    private static final int OPTIMIZE_ALL_TABLES_VERSION = 3_046_000;
+    private final long checkInterval;
+    private final long optimizeInterval;
+    private final int vacuumPages;
+    private final long idleTime;
+    private final long walCheckpointSize;
+    private final long walTruncateSize;
+    private final long timeBudget;
+    private long lastChangeTime;
+    private long lastOptimizeTime;
+    private long lastDataVersion;
+    private boolean changedSinceOptimize;
+    private String optimizePragma;
+    private File walFile;
+    private SQLiteDatabase database;
+    private Connection connection;
+    private ScheduledExecutorService executor;
+
+    private MaintenanceScheduler(Builder builder){
+        checkInterval = builder.checkInterval;
+        optimizeInterval = builder.optimizeInterval;
+        vacuumPages = builder.vacuumPages;
+        idleTime = builder.idleTime;
+        walCheckpointSize = builder.walCheckpointSize;
+        walTruncateSize = builder.walTruncateSize;
+        timeBudget = builder.timeBudget;
+        lastChangeTime = System.currentTimeMillis();
+        changedSinceOptimize = true;
+    }
+
+    public static MaintenanceScheduler.Builder createBuilder(){
+        return new Builder();
+    }
+
+    public static class Builder{
+        private long checkInterval = 60_000;
+        private long optimizeInterval = 3_600_000;
+        private int vacuumPages = 100;
+        private long idleTime = 30_000;
+        private long walCheckpointSize = 4L * 1024 * 1024;
+        private long walTruncateSize = 64L * 1024 * 1024;
+        private long timeBudget = 250;
+
+        private Builder(){}
+
+        public Builder setCheckInterval(long checkInterval){
+            this.checkInterval = checkInterval;
+            return this;
+        }
+
+        public Builder setOptimizeInterval(long optimizeInterval){
+            this.optimizeInterval = optimizeInterval;
+            return this;
+        }
+
+        public Builder setVacuumPages(int vacuumPages){
+            this.vacuumPages = vacuumPages;
+            return this;
+        }
+
+        public Builder setIdleTime(long idleTime){
+            this.idleTime = idleTime;
+            return this;
+        }
+
+        public Builder setWalCheckpointSize(long walCheckpointSize){
+            this.walCheckpointSize = walCheckpointSize;
+            return this;
+        }
+
+        public Builder setWalTruncateSize(long walTruncateSize){
+            this.walTruncateSize = walTruncateSize;
+            return this;
+        }
+
+        public Builder setTimeBudget(long timeBudget){
+            this.timeBudget = timeBudget;
+            return this;
+        }
+
+        public MaintenanceScheduler build() throws IllegalArgumentException{
+            if(checkInterval <= 0){
+                throw new IllegalArgumentException("MaintenanceScheduler check interval must be positive");
+            }
+            if(timeBudget <= 0){
+                throw new IllegalArgumentException("MaintenanceScheduler time budget must be positive");
+            }
+            return new MaintenanceScheduler(this);
+        }
+    }
+
+    void start(SQLiteDatabase database) throws SQLException{
+        walFile = new File(database.getFileName() + "-wal");
+        this.database = database;
+        connection = database.openBackgroundConnection();
+        try{
+            lastDataVersion = queryLong("PRAGMA data_version;");
+            optimizePragma = parseVersion(queryString("SELECT sqlite_version();")) >= OPTIMIZE_ALL_TABLES_VERSION ? "PRAGMA optimize(0x10002);" : "ANALYZE;";
+        }catch(SQLException e){
+            database.closeBackgroundConnection(connection);
+            throw e;
+        }
+        executor = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "SQLiteDatabase-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::runCycle, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+    }
+
+    void stop(){
+        executor.shutdownNow();
+        try{
+            executor.awaitTermination(timeBudget, TimeUnit.MILLISECONDS);
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }finally{
+            try{
+                database.closeBackgroundConnection(connection);
+            }catch(SQLException e){
+                System.err.println("Failed to close maintenance connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private void runCycle(){
+        long deadline = System.currentTimeMillis() + timeBudget;
+        try{
+            long now = System.currentTimeMillis();
+            long dataVersion = queryLong("PRAGMA data_version;");
+            if(dataVersion != lastDataVersion){
+                lastDataVersion = dataVersion;
+                lastChangeTime = now;
+                changedSinceOptimize = true;
+            }
+            if(changedSinceOptimize && now - lastOptimizeTime >= optimizeInterval){
+                if(runPragma("PRAGMA analysis_limit = 400;", deadline) && runPragma(optimizePragma, deadline)){
+                    changedSinceOptimize = false;
+                    lastOptimizeTime = now;
+                }
+            }
+            if(System.currentTimeMillis() - lastChangeTime >= idleTime && isIncrementalVacuumEnabled()){
+                runPragma("PRAGMA incremental_vacuum(" + vacuumPages + ");", deadline);
+            }
+            long walSize = walFile.length();
+            if(walSize >= walTruncateSize){
+                runPragma("PRAGMA wal_checkpoint(TRUNCATE);", deadline);
+            }else if(walSize >= walCheckpointSize){
+                runPragma("PRAGMA wal_checkpoint(PASSIVE);", deadline);
+            }
+        }catch(SQLException e){
+            System.err.println("Failed to run database maintenance: " + e.getMessage());
+        }
+    }
+
+    private boolean isIncrementalVacuumEnabled() throws SQLException{
+        return queryLong("PRAGMA auto_vacuum;") == AUTO_VACUUM_INCREMENTAL;
+    }
+
+    private long queryLong(String query) throws SQLException{
+        try(Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(query)){
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    private String queryString(String query) throws SQLException{
+        try(Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(query)){
+            return resultSet.next() ? resultSet.getString(1) : "";
+        }
+    }
+
+    private static int parseVersion(String version){
+        int parsed = 0;
+        String[] parts = version.split("\\.");
+        for(int i = 0; i < 3; i++){
+            int part = 0;
+            if(i < parts.length){
+                try{
+                    part = Integer.parseInt(parts[i]);
+                }catch(NumberFormatException e){
+                    part = 0;
+                }
+            }
+            parsed = parsed * 1000 + part;
+        }
+        return parsed;
+    }
+
+    private boolean runPragma(String pragma, long deadline) throws SQLException{
+        long remaining = deadline - System.currentTimeMillis();
+        if(remaining <= 0){
+            return false;
+        }
+        try(Statement statement = connection.createStatement()){
+            ScheduledFuture<?> canceller = executor.schedule(() -> {
+                try{
+                    statement.cancel();
+                }catch(SQLException e){
+                    System.err.println("Failed to cancel maintenance task: " + e.getMessage());
+                }
+            }, remaining, TimeUnit.MILLISECONDS);
+            try{
+                boolean hasResults = statement.execute(pragma);
+                while(hasResults){
+                    ResultSet resultSet = statement.getResultSet();
+                    while(resultSet.next()){}
+                    hasResults = statement.getMoreResults();
+                }
+            }finally{
+                canceller.cancel(false);
+            }
+        }
+        return true;
+    }
+}
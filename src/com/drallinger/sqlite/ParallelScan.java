@@ -0,0 +1,135 @@
+package com.drallinger.sqlite;
+
+import com.drallinger.sqlite.querybuilders.SelectBuilder;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+class ParallelScan {
+    private final SQLiteDatabase database;
+    private final SelectBuilder builder;
+    private final String keyColumn;
+    private final ResultSetHandler handler;
+    private final ResultCombiner combiner;
+
+    ParallelScan(SQLiteDatabase database, SelectBuilder builder, String keyColumn, ResultSetHandler handler, ResultCombiner combiner){
+        this.database = database;
+        this.builder = builder;
+        this.keyColumn = keyColumn.contains(".") ? keyColumn : builder.getTableName() + "." + keyColumn;
+        this.handler = handler;
+        this.combiner = combiner;
+    }
+
+    QueryResult<?> run(int partitions) throws SQLException{
+        if(builder.getLimit() > 0){
+            throw new IllegalArgumentException("Parallel scans do not support LIMIT");
+        }
+        long[] range = findKeyRange();
+        if(range == null){
+            return QueryResult.empty();
+        }
+        ForkJoinPool forkJoinPool = new ForkJoinPool(Math.min(partitions, database.getReaderPoolSize()));
+        try{
+            return forkJoinPool.invoke(new PartitionTask(range[0], range[1], partitions));
+        }catch(PartitionFailedException e){
+            throw e.getCause();
+        }finally{
+            forkJoinPool.shutdown();
+        }
+    }
+
+    private long[] findKeyRange() throws SQLException{
+        String query = "SELECT min(" + keyColumn + "), max(" + keyColumn + ") FROM " + builder.getTableName() + ";";
+        PooledConnection pooledConnection = database.acquireReader();
+        try{
+            try(ResultSet resultSet = pooledConnection.prepareStatement(query).executeQuery()){
+                if(!resultSet.next() || resultSet.getObject(1) == null){
+                    return null;
+                }
+                return new long[]{resultSet.getLong(1), resultSet.getLong(2)};
+            }
+        }finally{
+            database.releaseReader(pooledConnection);
+        }
+    }
+
+    private QueryResult<?> scanPartition(long low, long high) throws SQLException{
+        String rangeWhere = keyColumn + " BETWEEN ? AND ?";
+        String where = builder.getWhere();
+        SelectBuilder partitionBuilder = builder.clone()
+            .setWhere(where == null || where.isEmpty() ? rangeWhere : "(" + where + ") AND " + rangeWhere);
+        PooledConnection pooledConnection = database.acquireReader();
+        try{
+            String query = partitionBuilder.build();
+            PreparedStatement statement = pooledConnection.prepareStatement(query);
+            statement.setLong(1, low);
+            statement.setLong(2, high);
+            QueryExecutionEvent event = new QueryExecutionEvent();
+            event.begin();
+            try(ResultSet resultSet = statement.executeQuery()){
+                QueryResult<?> result = handler.handleResultSet(resultSet).build();
+                event.finishRaw(query, false, result.size());
+                return result;
+            }finally{
+                statement.clearParameters();
+            }
+        }finally{
+            database.releaseReader(pooledConnection);
+        }
+    }
+
+    private class PartitionTask extends RecursiveTask<QueryResult<?>>{
+        private static final long serialVersionUID = 1L;
+        private final long low;
+        private final long high;
+        private final int partitions;
+
+        private PartitionTask(long low, long high, int partitions){
+            this.low = low;
+            this.high = high;
+            this.partitions = partitions;
+        }
+
+        @Override
+        protected QueryResult<?> compute(){
+            int leftPartitions = partitions / 2;
+            long split = partitions <= 1 || low >= high ? high : splitPoint(leftPartitions);
+            if(split >= high){
+                try{
+                    return scanPartition(low, high);
+                }catch(SQLException e){
+                    throw new PartitionFailedException(e);
+                }
+            }
+            PartitionTask left = new PartitionTask(low, split, leftPartitions);
+            PartitionTask right = new PartitionTask(split + 1, high, partitions - leftPartitions);
+            left.fork();
+            QueryResult<?> rightResult = right.compute();
+            return combiner.combine(left.join(), rightResult);
+        }
+
+        private long splitPoint(int leftPartitions){
+            try{
+                long width = Math.subtractExact(high, low);
+                return low + (long) (width * ((double) leftPartitions / partitions));
+            }catch(ArithmeticException e){
+                return high;
+            }
+        }
+    }
+
+    private static class PartitionFailedException extends RuntimeException{
+        private static final long serialVersionUID = 1L;
+        private PartitionFailedException(SQLException cause){
+            super(cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause(){
+            return (SQLException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.drallinger.sqlite;
+
+import com.drallinger.sqlite.querybuilders.CreateIndexBuilder;
+import com.drallinger.sqlite.querybuilders.CreateTableBuilder;
+import com.drallinger.sqlite.querybuilders.DropTableBuilder;
+import com.drallinger.sqlite.querybuilders.InsertBuilder;
+import com.drallinger.sqlite.querybuilders.SelectBuilder;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+public class PartitionedTable {
+    public enum Period{
+        DAY,
+        WEEK,
+        MONTH
+    }
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int MAX_COMPOUND_SELECT = 500;
+    private final SQLiteDatabase database;
+    private final String baseName;
+    private final CreateTableBuilder template;
+    private final ArrayList<CreateIndexBuilder> indexTemplates;
+    private final String timestampColumn;
+    private final Period period;
+    private final TimeUnit timestampUnit;
+    private final TreeMap<LocalDate, String> partitions;
+
+    private PartitionedTable(SQLiteDatabase database, Builder builder){
+        this.database = database;
+        baseName = builder.baseName;
+        template = builder.template;
+        indexTemplates = new ArrayList<>(builder.indexTemplates);
+        timestampColumn = builder.timestampColumn;
+        period = builder.period;
+        timestampUnit = builder.timestampUnit;
+        partitions = new TreeMap<>();
+    }
+
+    public static PartitionedTable.Builder createBuilder(){
+        return new Builder();
+    }
+
+    public static class Builder{
+        private final ArrayList<CreateIndexBuilder> indexTemplates = new ArrayList<>();
+        private String baseName;
+        private CreateTableBuilder template;
+        private String timestampColumn;
+        private Period period = Period.DAY;
+        private TimeUnit timestampUnit = TimeUnit.MILLISECONDS;
+
+        private Builder(){}
+
+        public Builder setBaseName(String baseName){
+            this.baseName = baseName;
+            return this;
+        }
+
+        public Builder setTemplate(CreateTableBuilder template){
+            this.template = template;
+            return this;
+        }
+
+        public Builder addIndex(CreateIndexBuilder indexTemplate){
+            indexTemplates.add(indexTemplate);
+            return this;
+        }
+
+        public Builder setTimestampColumn(String timestampColumn){
+            this.timestampColumn = timestampColumn;
+            return this;
+        }
+
+        public Builder setPeriod(Period period){
+            this.period = period;
+            return this;
+        }
+
+        public Builder setTimestampUnit(TimeUnit timestampUnit){
+            this.timestampUnit = timestampUnit;
+            return this;
+        }
+
+        PartitionedTable build(SQLiteDatabase database) throws IllegalArgumentException{
+            if(baseName == null || baseName.isEmpty()){
+                throw new IllegalArgumentException("PartitionedTable missing base name");
+            }
+            if(template == null){
+                throw new IllegalArgumentException("PartitionedTable missing table template");
+            }
+            if(timestampColumn == null || timestampColumn.isEmpty()){
+                throw new IllegalArgumentException("PartitionedTable missing timestamp column");
+            }
+            for(CreateIndexBuilder indexTemplate : indexTemplates){
+                if(indexTemplate.getIndexName() == null || indexTemplate.getIndexName().isEmpty()){
+                    throw new IllegalArgumentException("PartitionedTable index template missing index name");
+                }
+            }
+            return new PartitionedTable(database, this);
+        }
+    }
+
+    void loadPartitions() throws SQLException{
+        partitions.clear();
+        String pattern = baseName.replace("\\", "\\\\").replace("_", "\\_").replace("%", "\\%").replace("'", "''");
+        ResultSet resultSet = database.executeQuery("SELECT name FROM sqlite_master WHERE type = 'table' AND name LIKE '" + pattern + "\\_p%' ESCAPE '\\';");
+        String prefix = baseName + "_p";
+        try{
+            while(resultSet.next()){
+                String name = resultSet.getString(1);
+                try{
+                    partitions.put(LocalDate.parse(name.substring(prefix.length()), PARTITION_FORMAT), name);
+                }catch(RuntimeException e){
+                    System.err.println("Ignoring table " + name + " that is not a partition of " + baseName);
+                }
+            }
+        }finally{
+            Statement statement = resultSet.getStatement();
+            resultSet.close();
+            if(statement != null){
+                statement.close();
+            }
+        }
+    }
+
+    public String getBaseName(){
+        return baseName;
+    }
+
+    public String partitionFor(long timestamp){
+        LocalDate start = periodStart(timestamp);
+        String name = partitions.get(start);
+        if(name == null){
+            name = baseName + "_p" + start.format(PARTITION_FORMAT);
+            database.executeUpdate(template.clone().setTableName(name).ifNotExists());
+            for(CreateIndexBuilder indexTemplate : indexTemplates){
+                database.executeUpdate(indexTemplate.clone()
+                    .setIndexName(name + "_" + indexTemplate.getIndexName())
+                    .setTableName(name)
+                    .ifNotExists());
+            }
+            partitions.put(start, name);
+            refreshView();
+        }
+        return name;
+    }
+
+    public void insert(InsertBuilder builder, long timestamp){
+        database.executeUpdate(builder.clone().setTableName(partitionFor(timestamp)));
+    }
+
+    public SelectBuilder select(SelectBuilder builder, long from, long to){
+        ArrayList<String> parts = new ArrayList<>();
+        String rangeWhere = timestampColumn + " >= " + from + " AND " + timestampColumn + " < " + to;
+        for(Map.Entry<LocalDate, String> partition : partitions.entrySet()){
+            long partitionStart = toTimestamp(partition.getKey());
+            long partitionEnd = toTimestamp(nextPeriod(partition.getKey()));
+            if(partitionStart < to && partitionEnd > from){
+                parts.add("SELECT * FROM " + partition.getValue() + " WHERE " + rangeWhere);
+            }
+        }
+        if(parts.isEmpty()){
+            if(partitions.isEmpty()){
+                database.handleError("Partitioned table " + baseName + " has no partitions");
+                return null;
+            }
+            parts.add("SELECT * FROM " + partitions.firstEntry().getValue() + " WHERE 0");
+        }
+        return builder.clone().setTableName("(" + unionAll(parts) + ") AS " + baseName);
+    }
+
+    public void refreshView(){
+        database.executeUpdate("DROP VIEW IF EXISTS " + baseName + ";");
+        if(partitions.isEmpty()){
+            return;
+        }
+        ArrayList<String> parts = new ArrayList<>();
+        for(String partition : partitions.values()){
+            parts.add("SELECT * FROM " + partition);
+        }
+        database.executeUpdate("CREATE VIEW " + baseName + " AS " + unionAll(parts) + ";");
+    }
+
+    private static String unionAll(List<String> parts){
+        if(parts.size() <= MAX_COMPOUND_SELECT){
+            return String.join(" UNION ALL ", parts);
+        }
+        ArrayList<String> groups = new ArrayList<>();
+        for(int i = 0; i < parts.size(); i += MAX_COMPOUND_SELECT){
+            groups.add("SELECT * FROM (" + String.join(" UNION ALL ", parts.subList(i, Math.min(i + MAX_COMPOUND_SELECT, parts.size()))) + ")");
+        }
+        return unionAll(groups);
+    }
+
+    public int dropPartitionsBefore(long timestamp){
+        ArrayList<LocalDate> expired = new ArrayList<>();
+        for(LocalDate start : partitions.keySet()){
+            if(toTimestamp(nextPeriod(start)) <= timestamp){
+                expired.add(start);
+            }
+        }
+        if(expired.isEmpty()){
+            return 0;
+        }
+        for(LocalDate start : expired){
+            database.executeUpdate(DropTableBuilder.createBuilder().setTableName(partitions.remove(start)).ifExists());
+        }
+        refreshView();
+        return expired.size();
+    }
+
+    private LocalDate periodStart(long timestamp){
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(timestampUnit.toMillis(timestamp), TimeUnit.DAYS.toMillis(1)));
+        return switch(period){
+            case DAY -> date;
+            case WEEK -> date.with(DayOfWeek.MONDAY);
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private LocalDate nextPeriod(LocalDate start){
+        return switch(period){
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    private long toTimestamp(LocalDate date){
+        return timestampUnit.convert(date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(), TimeUnit.MILLISECONDS);
+    }
+}
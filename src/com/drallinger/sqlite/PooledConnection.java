@@ -0,0 +1,40 @@
+package com.drallinger.sqlite;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+
+class PooledConnection {
+    private final ReadConnectionPool pool;
+    private final Connection connection;
+    private final HashMap<String, PreparedStatement> preparedStatements;
+
+    PooledConnection(ReadConnectionPool pool, Connection connection){
+        this.pool = pool;
+        this.connection = connection;
+        preparedStatements = new HashMap<>();
+    }
+
+    ReadConnectionPool getPool(){
+        return pool;
+    }
+
+    Connection getConnection(){
+        return connection;
+    }
+
+    PreparedStatement prepareStatement(String query) throws SQLException{
+        PreparedStatement statement = preparedStatements.get(query);
+        if(statement == null){
+            statement = connection.prepareStatement(query);
+            preparedStatements.put(query, statement);
+        }
+        return statement;
+    }
+
+    void close() throws SQLException{
+        preparedStatements.clear();
+        connection.close();
+    }
+}
@@ -0,0 +1,61 @@
+package com.drallinger.sqlite;
+
+import java.util.BitSet;
+
+public abstract class PrimitiveQueryResult {
+    private final BitSet nulls;
+    private final int size;
+
+    PrimitiveQueryResult(Builder<?> builder){
+        nulls = (BitSet) builder.nulls.clone();
+        size = builder.size;
+    }
+
+    public abstract static class Builder<B extends Builder<B>>{
+        private final BitSet nulls = new BitSet();
+        private int size;
+
+        Builder(){}
+
+        public B addNull(){
+            nulls.set(nextIndex());
+            return self();
+        }
+
+        int nextIndex(){
+            if(size == capacity()){
+                grow(capacity() + (capacity() >> 1));
+            }
+            return size++;
+        }
+
+        int getSize(){
+            return size;
+        }
+
+        abstract int capacity();
+
+        abstract void grow(int capacity);
+
+        abstract B self();
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isNull(int index){
+        if(index < 0 || index >= size){
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return nulls.get(index);
+    }
+
+    public boolean hasNulls(){
+        return !nulls.isEmpty();
+    }
+}
@@ -0,0 +1,11 @@
+package com.drallinger.sqlite;
+
+import java.sql.SQLException;
+
+public class QueryCancelledException extends SQLException {
+    private static final long serialVersionUID = 1L;
+
+    public QueryCancelledException(String message){
+        super(message);
+    }
+}
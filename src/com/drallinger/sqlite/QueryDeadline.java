@@ -0,0 +1,144 @@
+package com.drallinger.sqlite;
+
+import org.sqlite.ProgressHandler;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+class QueryDeadline implements AutoCloseable {
+    private static final long INTERRUPT_POLL_INTERVAL = 10;
+    private static final int PROGRESS_INSTRUCTIONS = 1000;
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SQLiteDatabase-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ThreadLocal<QueryDeadline> ACTIVE = new ThreadLocal<>();
+    private static final WeakHashMap<Connection, ProgressHandler> HANDLERS = new WeakHashMap<>();
+    private final Thread caller;
+    private final Future<?> future;
+    private final ScheduledFuture<?> timeoutTask;
+    private final ScheduledFuture<?> watchTask;
+    private volatile String cancelReason;
+
+    private QueryDeadline(long timeout, Thread caller, Future<?> future){
+        this.caller = caller;
+        this.future = future;
+        timeoutTask = timeout > 0 ? SCHEDULER.schedule(() -> cancel("exceeded its " + timeout + "ms deadline"), timeout, TimeUnit.MILLISECONDS) : null;
+        watchTask = SCHEDULER.scheduleWithFixedDelay(this::watch, INTERRUPT_POLL_INTERVAL, INTERRUPT_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    static <T> T run(Statement statement, long timeout, Future<?> future, StatementCall<T> call) throws SQLException{
+        if(timeout <= 0 && future == null){
+            return call.call();
+        }
+        try(QueryDeadline deadline = open(statement, timeout, future)){
+            return deadline.call(call);
+        }
+    }
+
+    static QueryDeadline open(Statement statement, long timeout, Future<?> future) throws SQLException{
+        if(Thread.currentThread().isInterrupted()){
+            throw new QueryCancelledException("Query was interrupted before it started");
+        }
+        installHandler(statement.getConnection());
+        return new QueryDeadline(timeout, Thread.currentThread(), future);
+    }
+
+    private static void installHandler(Connection connection) throws SQLException{
+        synchronized(HANDLERS){
+            if(HANDLERS.containsKey(connection)){
+                return;
+            }
+            ProgressHandler handler = new ProgressHandler(){
+                @Override
+                protected int progress(){
+                    QueryDeadline deadline = ACTIVE.get();
+                    return deadline == null || deadline.cancelReason == null ? 0 : 1;
+                }
+            };
+            ProgressHandler.setHandler(connection, PROGRESS_INSTRUCTIONS, handler);
+            HANDLERS.put(connection, handler);
+        }
+    }
+
+    <T> T call(StatementCall<T> call) throws SQLException{
+        QueryDeadline previous = ACTIVE.get();
+        ACTIVE.set(this);
+        try{
+            return call.call();
+        }catch(SQLException e){
+            check();
+            throw e;
+        }finally{
+            if(previous == null){
+                ACTIVE.remove();
+            }else{
+                ACTIVE.set(previous);
+            }
+        }
+    }
+
+    ResultSet bind(ResultSet resultSet){
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, (proxy, method, arguments) -> {
+            switch(method.getName()){
+                case "next" -> {
+                    boolean hasNext = call(resultSet::next);
+                    if(!hasNext){
+                        close();
+                    }
+                    return hasNext;
+                }
+                case "close" -> close();
+            }
+            try{
+                return method.invoke(resultSet, arguments);
+            }catch(InvocationTargetException e){
+                throw e.getCause();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    interface StatementCall<T>{
+        T call() throws SQLException;
+    }
+
+    private void watch(){
+        if(caller.isInterrupted()){
+            cancel("was interrupted");
+        }else if(future != null && future.isCancelled()){
+            cancel("was cancelled");
+        }
+    }
+
+    private synchronized void cancel(String reason){
+        if(cancelReason == null){
+            cancelReason = reason;
+        }
+    }
+
+    private void check() throws QueryCancelledException{
+        if(cancelReason != null){
+            throw new QueryCancelledException("Query " + cancelReason);
+        }
+    }
+
+    @Override
+    public void close(){
+        if(timeoutTask != null){
+            timeoutTask.cancel(false);
+        }
+        watchTask.cancel(false);
+    }
+}
@@ -0,0 +1,48 @@
+package com.drallinger.sqlite;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.regex.Pattern;
+
+@Name("com.drallinger.sqlite.QueryExecution")
+@Label("SQLite Query Execution")
+@Category("SQLite")
+class QueryExecutionEvent extends Event {
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\"[^\"]*\"|\\b\\d+(?:\\.\\d+)?\\b");
+
+    @Label("Query Name")
+    String queryName;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Update")
+    boolean update;
+
+    @Label("Rows")
+    long rows;
+
+    void finishSaved(String queryName, String sql, boolean update, long rows){
+        end();
+        if(shouldCommit()){
+            this.queryName = queryName;
+            this.sql = sql;
+            this.update = update;
+            this.rows = rows;
+            commit();
+        }
+    }
+
+    void finishRaw(String sql, boolean update, long rows){
+        end();
+        if(shouldCommit()){
+            this.sql = sql == null ? null : LITERALS.matcher(sql).replaceAll("?");
+            this.update = update;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
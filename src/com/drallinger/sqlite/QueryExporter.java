@@ -0,0 +1,273 @@
+package com.drallinger.sqlite;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Base64;
+
+public class QueryExporter {
+    public enum Format{
+        CSV,
+        NDJSON,
+        COLUMNAR
+    }
+    private static final byte[] COLUMNAR_MAGIC = {'S', 'Q', 'L', 'C'};
+    private static final int COLUMNAR_VERSION = 1;
+    private static final int COLUMNAR_BLOCK_ROWS = 4096;
+    private static final byte VECTOR_LONG = 0;
+    private static final byte VECTOR_DOUBLE = 1;
+    private static final byte VECTOR_TEXT = 2;
+    private static final byte VECTOR_BLOB = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    QueryExporter(WritableByteChannel channel){
+        this.channel = channel;
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    long export(ResultSet resultSet, Format format) throws SQLException, IOException{
+        long rows = switch(format){
+            case CSV -> exportCSV(resultSet);
+            case NDJSON -> exportNDJSON(resultSet);
+            case COLUMNAR -> exportColumnar(resultSet);
+        };
+        flush();
+        return rows;
+    }
+
+    private long exportCSV(ResultSet resultSet) throws SQLException, IOException{
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        for(int i = 1; i <= columnCount; i++){
+            if(i > 1){
+                put((byte) ',');
+            }
+            putCSVField(metaData.getColumnLabel(i));
+        }
+        put((byte) '\n');
+        long rows = 0;
+        while(resultSet.next()){
+            for(int i = 1; i <= columnCount; i++){
+                if(i > 1){
+                    put((byte) ',');
+                }
+                Object value = resultSet.getObject(i);
+                if(value instanceof byte[] bytes){
+                    putCSVField(Base64.getEncoder().encodeToString(bytes));
+                }else if(value != null){
+                    putCSVField(value.toString());
+                }
+            }
+            put((byte) '\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private long exportNDJSON(ResultSet resultSet) throws SQLException, IOException{
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        byte[][] keys = new byte[columnCount][];
+        for(int i = 0; i < columnCount; i++){
+            keys[i] = (jsonString(metaData.getColumnLabel(i + 1)) + ":").getBytes(StandardCharsets.UTF_8);
+        }
+        long rows = 0;
+        while(resultSet.next()){
+            put((byte) '{');
+            for(int i = 1; i <= columnCount; i++){
+                if(i > 1){
+                    put((byte) ',');
+                }
+                put(keys[i - 1]);
+                Object value = resultSet.getObject(i);
+                if(value == null){
+                    put("null");
+                }else if(value instanceof Integer || value instanceof Long){
+                    put(value.toString());
+                }else if(value instanceof Double number){
+                    put(Double.isFinite(number) ? number.toString() : "null");
+                }else if(value instanceof byte[] bytes){
+                    put(jsonString(Base64.getEncoder().encodeToString(bytes)));
+                }else{
+                    put(jsonString(value.toString()));
+                }
+            }
+            put((byte) '}');
+            put((byte) '\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private long exportColumnar(ResultSet resultSet) throws SQLException, IOException{
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        put(COLUMNAR_MAGIC);
+        putInt(COLUMNAR_VERSION);
+        putInt(columnCount);
+        for(int i = 1; i <= columnCount; i++){
+            putSizedBytes(metaData.getColumnLabel(i).getBytes(StandardCharsets.UTF_8));
+        }
+        Object[][] block = new Object[columnCount][COLUMNAR_BLOCK_ROWS];
+        int blockRows = 0;
+        long rows = 0;
+        while(resultSet.next()){
+            for(int i = 0; i < columnCount; i++){
+                block[i][blockRows] = resultSet.getObject(i + 1);
+            }
+            blockRows++;
+            rows++;
+            if(blockRows == COLUMNAR_BLOCK_ROWS){
+                writeColumnarBlock(block, blockRows);
+                blockRows = 0;
+            }
+        }
+        if(blockRows > 0){
+            writeColumnarBlock(block, blockRows);
+        }
+        putInt(0);
+        return rows;
+    }
+
+    private void writeColumnarBlock(Object[][] block, int blockRows) throws IOException{
+        putInt(blockRows);
+        for(Object[] vector : block){
+            byte type = vectorType(vector, blockRows);
+            put(type);
+            byte[] nulls = new byte[(blockRows + 7) / 8];
+            for(int row = 0; row < blockRows; row++){
+                if(vector[row] == null){
+                    nulls[row >> 3] |= (byte) (1 << (row & 7));
+                }
+            }
+            put(nulls);
+            for(int row = 0; row < blockRows; row++){
+                Object value = vector[row];
+                vector[row] = null;
+                if(value == null){
+                    continue;
+                }
+                switch(type){
+                    case VECTOR_LONG -> putLong(((Number) value).longValue());
+                    case VECTOR_DOUBLE -> putLong(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+                    case VECTOR_BLOB -> putSizedBytes((byte[]) value);
+                    default -> putSizedBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    private byte vectorType(Object[] vector, int blockRows){
+        boolean integers = true;
+        boolean numbers = true;
+        boolean blobs = true;
+        for(int row = 0; row < blockRows; row++){
+            Object value = vector[row];
+            if(value == null){
+                continue;
+            }
+            integers &= value instanceof Integer || value instanceof Long;
+            numbers &= value instanceof Number;
+            blobs &= value instanceof byte[];
+        }
+        if(integers){
+            return VECTOR_LONG;
+        }
+        if(numbers){
+            return VECTOR_DOUBLE;
+        }
+        return blobs ? VECTOR_BLOB : VECTOR_TEXT;
+    }
+
+    private void putCSVField(String value) throws IOException{
+        boolean quote = false;
+        for(int i = 0; i < value.length() && !quote; i++){
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if(quote){
+            put("\"" + value.replace("\"", "\"\"") + "\"");
+        }else{
+            put(value);
+        }
+    }
+
+    private String jsonString(String value){
+        StringBuilder json = new StringBuilder(value.length() + 2);
+        json.append('"');
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            switch(c){
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if(c < 0x20){
+                        json.append(String.format("\\u%04x", (int) c));
+                    }else{
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private void put(String value) throws IOException{
+        put(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void put(byte value) throws IOException{
+        ensureCapacity(1);
+        buffer.put(value);
+    }
+
+    private void put(byte[] bytes) throws IOException{
+        int offset = 0;
+        while(offset < bytes.length){
+            if(!buffer.hasRemaining()){
+                flush();
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void putInt(int value) throws IOException{
+        ensureCapacity(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    private void putLong(long value) throws IOException{
+        ensureCapacity(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    private void putSizedBytes(byte[] bytes) throws IOException{
+        putInt(bytes.length);
+        put(bytes);
+    }
+
+    private void ensureCapacity(int bytes) throws IOException{
+        if(buffer.remaining() < bytes){
+            flush();
+        }
+    }
+
+    private void flush() throws IOException{
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
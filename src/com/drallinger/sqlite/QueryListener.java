@@ -0,0 +1,6 @@
+package com.drallinger.sqlite;
+
+@FunctionalInterface
+public interface QueryListener {
+    void onQuery(String queryName, boolean update, QueryValue<?>[] values, long startTime, long duration);
+}
@@ -1,41 +1,143 @@
 package com.drallinger.sqlite;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 
-public class QueryResult<T> {
+public class QueryResult<T> implements Iterable<T> {
     private final T value;
     private final ArrayList<T> values;
+    private final ResultSpillFile spillFile;
+    private final String failureReason;
 
     private QueryResult(Builder<T> builder){
         value = builder.value;
         values = new ArrayList<>(builder.values);
+        spillFile = builder.spillFile;
+        failureReason = builder.failureReason;
+        if(spillFile != null){
+            spillFile.register(this);
+        }
     }
 
     public static QueryResult<?> empty(){
         return (new QueryResult.Builder<>().build());
     }
 
+    static QueryResult<?> failed(String failureReason){
+        QueryResult.Builder<Object> builder = new QueryResult.Builder<>();
+        builder.failureReason = failureReason;
+        return builder.build();
+    }
+
     public static class Builder<T>{
         private final ArrayList<T> values = new ArrayList<>();
         private T value;
+        private ResultLimits limits = ResultLimits.current();
+        private ResultSpillFile spillFile;
+        private boolean spillDisabled;
+        private long rowCount;
+        private long byteCount;
+        private String failureReason;
 
         public Builder setValue(T value){
             this.value = value;
             return this;
         }
 
+        public Builder<T> setLimits(ResultLimits limits){
+            this.limits = limits;
+            return this;
+        }
+
         public Builder addValue(T value){
-            values.add(value);
+            if(limits == null){
+                values.add(value);
+                return this;
+            }
+            rowCount++;
+            if(limits.getMaxBytes() > 0 || limits.getSpillThreshold() > 0){
+                byteCount += ResultSizeEstimator.estimate(value);
+            }
+            if(limits.getMaxRows() > 0 && rowCount > limits.getMaxRows()){
+                discardSpillFile();
+                throw new ResultLimitExceededException("Result exceeded the limit of " + limits.getMaxRows() + " rows");
+            }
+            if(limits.getMaxBytes() > 0 && byteCount > limits.getMaxBytes()){
+                discardSpillFile();
+                throw new ResultLimitExceededException("Result exceeded the limit of " + limits.getMaxBytes() + " bytes");
+            }
+            try{
+                if(spillFile == null && !spillDisabled && limits.getSpillThreshold() > 0 && byteCount > limits.getSpillThreshold()){
+                    spillFile = new ResultSpillFile(limits.getSpillDirectory(), limits.getSerializer());
+                    for(T spilledValue : values){
+                        if(!spillFile.write(spilledValue)){
+                            discardSpillFile();
+                            spillDisabled = true;
+                            break;
+                        }
+                    }
+                    if(spillFile != null){
+                        values.clear();
+                    }
+                }
+                if(spillFile == null){
+                    values.add(value);
+                }else if(!spillFile.write(value)){
+                    discardSpillFile();
+                    throw new ResultLimitExceededException("Cannot spill result values of type " + value.getClass().getName());
+                }
+            }catch(IOException e){
+                discardSpillFile();
+                throw new ResultLimitExceededException("Failed to spill result to disk: " + e.getMessage());
+            }
             return this;
         }
 
+        private void discardSpillFile(){
+            if(spillFile != null){
+                spillFile.discard();
+                spillFile = null;
+            }
+        }
+
         public QueryResult<T> build(){
-            return new QueryResult<>(this);
+            if(spillFile == null){
+                return new QueryResult<>(this);
+            }
+            try{
+                spillFile.finish();
+            }catch(IOException e){
+                discardSpillFile();
+                throw new ResultLimitExceededException("Failed to spill result to disk: " + e.getMessage());
+            }
+            QueryResult<T> result = new QueryResult<>(this);
+            spillFile = null;
+            spillDisabled = false;
+            rowCount = 0;
+            byteCount = 0;
+            return result;
         }
     }
 
     public boolean isEmpty(){
-        return (value == null && values.isEmpty());
+        return (value == null && values.isEmpty() && !isSpilled());
+    }
+
+    public boolean isFailed(){
+        return failureReason != null;
+    }
+
+    public String getFailureReason(){
+        return failureReason;
+    }
+
+    public boolean isSpilled(){
+        return spillFile != null;
+    }
+
+    public long size(){
+        return isSpilled() ? spillFile.getCount() : values.size();
     }
 
     public T getValue(){
@@ -43,6 +145,37 @@ public class QueryResult<T> {
     }
 
     public ArrayList<T> getValues(){
-        return new ArrayList<>(values);
+        if(!isSpilled()){
+            return new ArrayList<>(values);
+        }
+        ArrayList<T> spilledValues = new ArrayList<>();
+        try(CloseableIterator<T> iterator = spillFile.iterator()){
+            while(iterator.hasNext()){
+                spilledValues.add(iterator.next());
+            }
+        }
+        return spilledValues;
+    }
+
+    @Override
+    public CloseableIterator<T> iterator(){
+        if(isSpilled()){
+            return spillFile.iterator();
+        }
+        Iterator<T> iterator = values.iterator();
+        return new CloseableIterator<>(){
+            @Override
+            public boolean hasNext(){
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next(){
+                return iterator.next();
+            }
+
+            @Override
+            public void close(){}
+        };
     }
 }
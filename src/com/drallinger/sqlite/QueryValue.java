@@ -4,7 +4,8 @@ public class QueryValue<T> {
     public enum ValueType{
         INTEGER,
         REAL,
-        TEXT
+        TEXT,
+        BLOB
     }
     private final T value;
     private final ValueType type;
@@ -26,6 +27,18 @@ public class QueryValue<T> {
         return new QueryValue<>(value, ValueType.TEXT);
     }
 
+    public static QueryValue<byte[]> blobValue(byte[] value){
+        return new QueryValue<>(value, ValueType.BLOB);
+    }
+
+    public static QueryValue<byte[]> compressedTextValue(String value){
+        return blobValue(Compression.compress(value));
+    }
+
+    public static QueryValue<byte[]> compressedTextValue(String value, CompressionDictionary dictionary){
+        return blobValue(Compression.compress(value, dictionary));
+    }
+
     public T getValue(){
         return value;
     }
@@ -0,0 +1,111 @@
+package com.drallinger.sqlite;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+class ReadConnectionPool {
+    private final String fileName;
+    private final String url;
+    private final int size;
+    private final ConnectionInitializer initializer;
+    private final ArrayDeque<PooledConnection> idleConnections;
+    private int openConnections;
+    private boolean closed;
+
+    ReadConnectionPool(String fileName, String url, int size, ConnectionInitializer initializer){
+        this.fileName = fileName;
+        this.url = url;
+        this.size = size;
+        this.initializer = initializer;
+        idleConnections = new ArrayDeque<>();
+        openConnections = 0;
+        closed = false;
+    }
+
+    int getSize(){
+        return size;
+    }
+
+    PooledConnection acquire() throws SQLException{
+        synchronized(idleConnections){
+            while(true){
+                if(closed){
+                    return null;
+                }
+                PooledConnection pooledConnection = idleConnections.poll();
+                if(pooledConnection != null){
+                    return pooledConnection;
+                }
+                if(openConnections < size){
+                    openConnections++;
+                    break;
+                }
+                try{
+                    idleConnections.wait();
+                }catch(InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a read connection");
+                }
+            }
+        }
+        try{
+            ConnectionEvent event = new ConnectionEvent();
+            event.begin();
+            Connection connection = DriverManager.getConnection(url);
+            try{
+                initializer.initialize(connection);
+            }catch(SQLException e){
+                connection.close();
+                throw e;
+            }
+            event.finish(fileName, "reader", "open");
+            return new PooledConnection(this, connection);
+        }catch(SQLException e){
+            synchronized(idleConnections){
+                openConnections--;
+                idleConnections.notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    void release(PooledConnection pooledConnection){
+        synchronized(idleConnections){
+            if(!closed){
+                idleConnections.offer(pooledConnection);
+                idleConnections.notify();
+                return;
+            }
+            openConnections--;
+        }
+        closeConnection(pooledConnection);
+    }
+
+    void close(){
+        ArrayList<PooledConnection> idle;
+        synchronized(idleConnections){
+            closed = true;
+            idle = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+            openConnections -= idle.size();
+            idleConnections.notifyAll();
+        }
+        for(PooledConnection pooledConnection : idle){
+            closeConnection(pooledConnection);
+        }
+    }
+
+    private void closeConnection(PooledConnection pooledConnection){
+        try{
+            ConnectionEvent event = new ConnectionEvent();
+            event.begin();
+            pooledConnection.close();
+            event.finish(fileName, "reader", "close");
+        }catch(SQLException e){
+            System.err.println("Failed to close reader connection: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.drallinger.sqlite;
+
+import com.drallinger.sqlite.querybuilders.QueryBuilder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+
+public class ReadSnapshot {
+    private final SQLiteDatabase database;
+    private final PooledConnection pooledConnection;
+    private final Connection connection;
+    private final ArrayList<Statement> statements;
+
+    ReadSnapshot(SQLiteDatabase database, PooledConnection pooledConnection, Connection connection){
+        this.database = database;
+        this.pooledConnection = pooledConnection;
+        this.connection = connection;
+        statements = new ArrayList<>();
+    }
+
+    public ResultSet executeQuery(String query) throws SQLException{
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
+        Statement statement = connection.createStatement();
+        statements.add(statement);
+        ResultSet resultSet = statement.executeQuery(query);
+        event.finishRaw(query, false, -1);
+        return resultSet;
+    }
+
+    public ResultSet executeQuery(QueryBuilder builder) throws SQLException{
+        return executeQuery(builder.build());
+    }
+
+    public QueryResult<?> executeSavedQuery(String queryName, QueryValue<?>... values) throws SQLException{
+        if(pooledConnection == null){
+            return database.runSavedQuery(queryName, 0, null, values);
+        }
+        return database.runSavedQuery(pooledConnection, queryName, 0, null, values);
+    }
+
+    void close(){
+        for(Statement statement : statements){
+            try{
+                statement.close();
+            }catch(SQLException e){
+                System.err.println("Failed to close snapshot statement: " + e.getMessage());
+            }
+        }
+        statements.clear();
+    }
+}
@@ -0,0 +1,6 @@
+package com.drallinger.sqlite;
+
+@FunctionalInterface
+public interface ResultCombiner {
+    QueryResult<?> combine(QueryResult<?> left, QueryResult<?> right);
+}
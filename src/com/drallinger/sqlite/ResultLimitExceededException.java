@@ -0,0 +1,9 @@
+package com.drallinger.sqlite;
+
+public class ResultLimitExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ResultLimitExceededException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,100 @@
+package com.drallinger.sqlite;
+
+import java.nio.file.Path;
+
+public class ResultLimits {
+    private static final ThreadLocal<ResultLimits> CURRENT = new ThreadLocal<>();
+    private final long maxRows;
+    private final long maxBytes;
+    private final long spillThreshold;
+    private final Path spillDirectory;
+    private final ResultSerializer serializer;
+
+    private ResultLimits(Builder builder){
+        maxRows = builder.maxRows;
+        maxBytes = builder.maxBytes;
+        spillThreshold = builder.spillThreshold;
+        spillDirectory = builder.spillDirectory;
+        serializer = builder.serializer;
+    }
+
+    public static ResultLimits.Builder createBuilder(){
+        return new Builder();
+    }
+
+    public static class Builder{
+        private long maxRows;
+        private long maxBytes;
+        private long spillThreshold;
+        private Path spillDirectory;
+        private ResultSerializer serializer;
+
+        private Builder(){}
+
+        public Builder setMaxRows(long maxRows){
+            this.maxRows = maxRows;
+            return this;
+        }
+
+        public Builder setMaxBytes(long maxBytes){
+            this.maxBytes = maxBytes;
+            return this;
+        }
+
+        public Builder setSpillThreshold(long spillThreshold){
+            this.spillThreshold = spillThreshold;
+            return this;
+        }
+
+        public Builder setSpillDirectory(Path spillDirectory){
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        public Builder setSerializer(ResultSerializer serializer){
+            this.serializer = serializer;
+            return this;
+        }
+
+        public ResultLimits build() throws IllegalArgumentException{
+            if(maxRows < 0 || maxBytes < 0 || spillThreshold < 0){
+                throw new IllegalArgumentException("ResultLimits cannot be negative");
+            }
+            return new ResultLimits(this);
+        }
+    }
+
+    static ResultLimits current(){
+        return CURRENT.get();
+    }
+
+    static ResultLimits setCurrent(ResultLimits limits){
+        ResultLimits previous = CURRENT.get();
+        if(limits == null){
+            CURRENT.remove();
+        }else{
+            CURRENT.set(limits);
+        }
+        return previous;
+    }
+
+    public long getMaxRows(){
+        return maxRows;
+    }
+
+    public long getMaxBytes(){
+        return maxBytes;
+    }
+
+    public long getSpillThreshold(){
+        return spillThreshold;
+    }
+
+    public Path getSpillDirectory(){
+        return spillDirectory;
+    }
+
+    public ResultSerializer getSerializer(){
+        return serializer;
+    }
+}
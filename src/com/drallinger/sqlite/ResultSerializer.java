@@ -0,0 +1,13 @@
+package com.drallinger.sqlite;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public interface ResultSerializer {
+    boolean canSerialize(Object value);
+
+    void write(DataOutput output, Object value) throws IOException;
+
+    Object read(DataInput input) throws IOException;
+}
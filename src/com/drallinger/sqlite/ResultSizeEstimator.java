@@ -0,0 +1,142 @@
+package com.drallinger.sqlite;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+class ResultSizeEstimator {
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 8;
+    private static final int COLLECTION_ENTRY = 16;
+    private static final int MAP_ENTRY = 32;
+    private static final int MAX_DEPTH = 8;
+    private static final ClassValue<ClassLayout> LAYOUTS = new ClassValue<>(){
+        @Override
+        protected ClassLayout computeValue(Class<?> type){
+            return new ClassLayout(type);
+        }
+    };
+
+    private ResultSizeEstimator(){}
+
+    private static class ClassLayout{
+        private final long shallowSize;
+        private final Field[] references;
+
+        private ClassLayout(Class<?> type){
+            long size = OBJECT_HEADER;
+            ArrayList<Field> accessibleReferences = new ArrayList<>();
+            for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()){
+                for(Field field : current.getDeclaredFields()){
+                    if(Modifier.isStatic(field.getModifiers())){
+                        continue;
+                    }
+                    if(field.getType().isPrimitive()){
+                        size += primitiveSize(field.getType());
+                    }else{
+                        size += REFERENCE;
+                        if(field.trySetAccessible()){
+                            accessibleReferences.add(field);
+                        }
+                    }
+                }
+            }
+            shallowSize = align(size);
+            references = accessibleReferences.toArray(new Field[0]);
+        }
+    }
+
+    static long estimate(Object value){
+        return estimate(value, Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+    }
+
+    private static long estimate(Object value, Set<Object> seen, int depth){
+        if(value == null || !seen.add(value)){
+            return 0;
+        }
+        if(value instanceof String string){
+            return align(40 + 2L * string.length());
+        }
+        if(value instanceof byte[] bytes){
+            return align(OBJECT_HEADER + bytes.length);
+        }
+        if(value instanceof Long || value instanceof Double){
+            return 24;
+        }
+        if(value instanceof Number || value instanceof Boolean || value instanceof Character){
+            return 16;
+        }
+        Class<?> type = value.getClass();
+        if(type.isArray()){
+            int length = Array.getLength(value);
+            Class<?> componentType = type.getComponentType();
+            if(componentType.isPrimitive()){
+                return align(OBJECT_HEADER + (long) length * primitiveSize(componentType));
+            }
+            long size = align(OBJECT_HEADER + (long) length * REFERENCE);
+            if(depth < MAX_DEPTH){
+                for(int i = 0; i < length; i++){
+                    size += estimate(Array.get(value, i), seen, depth + 1);
+                }
+            }
+            return size;
+        }
+        if(value instanceof Collection<?> collection){
+            long size = OBJECT_HEADER + (long) collection.size() * COLLECTION_ENTRY;
+            if(depth < MAX_DEPTH){
+                for(Object element : collection){
+                    size += estimate(element, seen, depth + 1);
+                }
+            }
+            return size;
+        }
+        if(value instanceof Map<?, ?> map){
+            long size = OBJECT_HEADER + (long) map.size() * MAP_ENTRY;
+            if(depth < MAX_DEPTH){
+                for(Map.Entry<?, ?> entry : map.entrySet()){
+                    size += estimate(entry.getKey(), seen, depth + 1) + estimate(entry.getValue(), seen, depth + 1);
+                }
+            }
+            return size;
+        }
+        ClassLayout layout = LAYOUTS.get(type);
+        long size = layout.shallowSize;
+        if(depth < MAX_DEPTH){
+            for(Field field : layout.references){
+                size += estimate(readField(field, value), seen, depth + 1);
+            }
+        }
+        return size;
+    }
+
+    private static Object readField(Field field, Object value){
+        try{
+            return field.get(value);
+        }catch(IllegalAccessException e){
+            return null;
+        }
+    }
+
+    private static int primitiveSize(Class<?> type){
+        if(type == long.class || type == double.class){
+            return 8;
+        }
+        if(type == int.class || type == float.class){
+            return 4;
+        }
+        if(type == short.class || type == char.class){
+            return 2;
+        }
+        return 1;
+    }
+
+    private static long align(long size){
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,209 @@
+package com.drallinger.sqlite;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+class ResultSpillFile {
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_INTEGER = 1;
+    private static final byte TAG_LONG = 2;
+    private static final byte TAG_DOUBLE = 3;
+    private static final byte TAG_STRING = 4;
+    private static final byte TAG_BYTES = 5;
+    private static final byte TAG_BOOLEAN = 6;
+    private static final byte TAG_CUSTOM = 7;
+    private static final byte TAG_SERIALIZED = 8;
+    private final Path path;
+    private final ResultSerializer serializer;
+    private DataOutputStream output;
+    private long count;
+
+    ResultSpillFile(Path directory, ResultSerializer serializer) throws IOException{
+        this.serializer = serializer;
+        path = directory == null ? Files.createTempFile("sqlite-result", ".spill") : Files.createTempFile(directory, "sqlite-result", ".spill");
+        output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+    }
+
+    void register(Object owner){
+        Path spillPath = path;
+        CLEANER.register(owner, () -> {
+            try{
+                Files.deleteIfExists(spillPath);
+            }catch(IOException e){
+                System.err.println("Failed to delete result spill file: " + e.getMessage());
+            }
+        });
+    }
+
+    boolean write(Object value) throws IOException{
+        if(value == null){
+            output.writeByte(TAG_NULL);
+        }else if(value instanceof Integer integer){
+            output.writeByte(TAG_INTEGER);
+            output.writeInt(integer);
+        }else if(value instanceof Long number){
+            output.writeByte(TAG_LONG);
+            output.writeLong(number);
+        }else if(value instanceof Double number){
+            output.writeByte(TAG_DOUBLE);
+            output.writeDouble(number);
+        }else if(value instanceof String string){
+            output.writeByte(TAG_STRING);
+            writeBytes(string.getBytes(StandardCharsets.UTF_8));
+        }else if(value instanceof byte[] bytes){
+            output.writeByte(TAG_BYTES);
+            writeBytes(bytes);
+        }else if(value instanceof Boolean bool){
+            output.writeByte(TAG_BOOLEAN);
+            output.writeBoolean(bool);
+        }else if(serializer != null && serializer.canSerialize(value)){
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            serializer.write(new DataOutputStream(bytes), value);
+            output.writeByte(TAG_CUSTOM);
+            writeBytes(bytes.toByteArray());
+        }else if(value instanceof Serializable){
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try(ObjectOutputStream objectOutput = new ObjectOutputStream(bytes)){
+                objectOutput.writeObject(value);
+            }catch(NotSerializableException e){
+                return false;
+            }
+            output.writeByte(TAG_SERIALIZED);
+            writeBytes(bytes.toByteArray());
+        }else{
+            return false;
+        }
+        count++;
+        return true;
+    }
+
+    void finish() throws IOException{
+        if(output != null){
+            output.close();
+            output = null;
+        }
+    }
+
+    void discard(){
+        try{
+            if(output != null){
+                output.close();
+                output = null;
+            }
+        }catch(IOException e){
+            System.err.println("Failed to close result spill file: " + e.getMessage());
+        }
+        try{
+            Files.deleteIfExists(path);
+        }catch(IOException e){
+            System.err.println("Failed to delete result spill file: " + e.getMessage());
+        }
+    }
+
+    long getCount(){
+        return count;
+    }
+
+    <T> CloseableIterator<T> iterator(){
+        DataInputStream input;
+        try{
+            input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+        CloseableIterator<T> iterator = new CloseableIterator<>(){
+            private long remaining = count;
+
+            @Override
+            public boolean hasNext(){
+                return remaining > 0;
+            }
+
+            @Override
+            public void close(){
+                remaining = 0;
+                closeInput(input);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next(){
+                if(remaining <= 0){
+                    throw new NoSuchElementException();
+                }
+                try{
+                    T value = (T) read(input);
+                    if(--remaining == 0){
+                        input.close();
+                    }
+                    return value;
+                }catch(IOException e){
+                    close();
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        CLEANER.register(iterator, () -> closeInput(input));
+        return iterator;
+    }
+
+    private static void closeInput(DataInputStream input){
+        try{
+            input.close();
+        }catch(IOException e){
+            System.err.println("Failed to close result spill file: " + e.getMessage());
+        }
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException{
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private Object read(DataInputStream input) throws IOException{
+        byte tag = input.readByte();
+        return switch(tag){
+            case TAG_NULL -> null;
+            case TAG_INTEGER -> input.readInt();
+            case TAG_LONG -> input.readLong();
+            case TAG_DOUBLE -> input.readDouble();
+            case TAG_STRING -> new String(readBytes(input), StandardCharsets.UTF_8);
+            case TAG_BYTES -> readBytes(input);
+            case TAG_BOOLEAN -> input.readBoolean();
+            case TAG_CUSTOM -> serializer.read(new DataInputStream(new ByteArrayInputStream(readBytes(input))));
+            case TAG_SERIALIZED -> readObject(readBytes(input));
+            default -> throw new EOFException("Corrupt result spill file " + path);
+        };
+    }
+
+    private Object readObject(byte[] bytes) throws IOException{
+        try(ObjectInputStream objectInput = new ObjectInputStream(new ByteArrayInputStream(bytes))){
+            return objectInput.readObject();
+        }catch(ClassNotFoundException e){
+            throw new IOException("Unknown class in result spill file " + path, e);
+        }
+    }
+
+    private byte[] readBytes(DataInputStream input) throws IOException{
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,187 @@
+package com.drallinger.sqlite;
+
+import org.sqlite.Function;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+class SQLFunction {
+    private static final int SQLITE_INTEGER = 1;
+    private static final int SQLITE_FLOAT = 2;
+    private static final int SQLITE_TEXT = 3;
+    private static final int SQLITE_BLOB = 4;
+    private final String name;
+    private final int argumentCount;
+    private final int flags;
+    private final Supplier<Function> factory;
+
+    private SQLFunction(String name, int argumentCount, boolean deterministic, Supplier<Function> factory){
+        this.name = name;
+        this.argumentCount = argumentCount;
+        this.flags = deterministic ? Function.FLAG_DETERMINISTIC : 0;
+        this.factory = factory;
+    }
+
+    static SQLFunction scalar(String name, int argumentCount, boolean deterministic, ScalarFunction function){
+        return new SQLFunction(name, argumentCount, deterministic, () -> new ScalarAdapter(function));
+    }
+
+    static <A> SQLFunction aggregate(String name, int argumentCount, boolean deterministic, AggregateFunction<A> function){
+        return new SQLFunction(name, argumentCount, deterministic, () -> new AggregateAdapter<>(function));
+    }
+
+    String getName(){
+        return name;
+    }
+
+    int getArgumentCount(){
+        return argumentCount;
+    }
+
+    void register(Connection connection) throws SQLException{
+        Function.create(connection, name, factory.get(), argumentCount, flags);
+    }
+
+    void unregister(Connection connection) throws SQLException{
+        Function.destroy(connection, name, argumentCount);
+    }
+
+    @FunctionalInterface
+    private interface IntAccessor<R>{
+        R get(int index) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface ResultSetter<T>{
+        void set(T value) throws SQLException;
+    }
+
+    private static class FunctionValues{
+        private final IntAccessor<Integer> argumentType;
+        private final IntAccessor<Long> longArgument;
+        private final IntAccessor<Double> doubleArgument;
+        private final IntAccessor<String> textArgument;
+        private final IntAccessor<byte[]> blobArgument;
+        private final ResultSetter<Void> nullResult;
+        private final ResultSetter<Long> longResult;
+        private final ResultSetter<Double> doubleResult;
+        private final ResultSetter<String> textResult;
+        private final ResultSetter<byte[]> blobResult;
+
+        private FunctionValues(IntAccessor<Integer> argumentType, IntAccessor<Long> longArgument, IntAccessor<Double> doubleArgument,
+                               IntAccessor<String> textArgument, IntAccessor<byte[]> blobArgument, ResultSetter<Void> nullResult,
+                               ResultSetter<Long> longResult, ResultSetter<Double> doubleResult, ResultSetter<String> textResult,
+                               ResultSetter<byte[]> blobResult){
+            this.argumentType = argumentType;
+            this.longArgument = longArgument;
+            this.doubleArgument = doubleArgument;
+            this.textArgument = textArgument;
+            this.blobArgument = blobArgument;
+            this.nullResult = nullResult;
+            this.longResult = longResult;
+            this.doubleResult = doubleResult;
+            this.textResult = textResult;
+            this.blobResult = blobResult;
+        }
+
+        private Object[] readArguments(int count) throws SQLException{
+            Object[] arguments = new Object[count];
+            for(int i = 0; i < arguments.length; i++){
+                arguments[i] = switch(argumentType.get(i)){
+                    case SQLITE_INTEGER -> longArgument.get(i);
+                    case SQLITE_FLOAT -> doubleArgument.get(i);
+                    case SQLITE_TEXT -> textArgument.get(i);
+                    case SQLITE_BLOB -> blobArgument.get(i);
+                    default -> null;
+                };
+            }
+            return arguments;
+        }
+
+        private void setResult(Object value) throws SQLException{
+            if(value == null){
+                nullResult.set(null);
+            }else if(value instanceof Integer || value instanceof Long || value instanceof Short){
+                longResult.set(((Number) value).longValue());
+            }else if(value instanceof Number number){
+                doubleResult.set(number.doubleValue());
+            }else if(value instanceof Boolean bool){
+                longResult.set(bool ? 1L : 0L);
+            }else if(value instanceof byte[] bytes){
+                blobResult.set(bytes);
+            }else{
+                textResult.set(value.toString());
+            }
+        }
+    }
+
+    private static class ScalarAdapter extends Function{
+        private final ScalarFunction function;
+        private final FunctionValues values;
+
+        private ScalarAdapter(ScalarFunction function){
+            this.function = function;
+            values = new FunctionValues(this::value_type, this::value_long, this::value_double, this::value_text, this::value_blob,
+                value -> result(), value -> result((long) value), value -> result((double) value), value -> result(value), value -> result(value));
+        }
+
+        @Override
+        protected void xFunc() throws SQLException{
+            values.setResult(function.apply(values.readArguments(args())));
+        }
+    }
+
+    private static class AggregateAdapter<A> extends Function.Window{
+        private final AggregateFunction<A> function;
+        private FunctionValues values;
+        private A accumulator;
+
+        private AggregateAdapter(AggregateFunction<A> function){
+            this.function = function;
+            values = bindValues();
+            accumulator = function.initialize();
+        }
+
+        private FunctionValues bindValues(){
+            return new FunctionValues(this::value_type, this::value_long, this::value_double, this::value_text, this::value_blob,
+                value -> result(), value -> result((long) value), value -> result((double) value), value -> result(value), value -> result(value));
+        }
+
+        @Override
+        protected void xStep() throws SQLException{
+            accumulator = function.step(accumulator, values.readArguments(args()));
+        }
+
+        @Override
+        protected void xInverse() throws SQLException{
+            if(!(function instanceof WindowFunction<A> windowFunction)){
+                throw new SQLException("Aggregate function does not support sliding window frames");
+            }
+            accumulator = windowFunction.inverse(accumulator, values.readArguments(args()));
+        }
+
+        @Override
+        protected void xValue() throws SQLException{
+            if(function instanceof WindowFunction<A> windowFunction){
+                values.setResult(windowFunction.value(accumulator));
+            }else{
+                values.setResult(function.finish(accumulator));
+            }
+        }
+
+        @Override
+        protected void xFinal() throws SQLException{
+            values.setResult(function.finish(accumulator));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object clone() throws CloneNotSupportedException{
+            AggregateAdapter<A> copy = (AggregateAdapter<A>) super.clone();
+            copy.values = copy.bindValues();
+            copy.accumulator = function.initialize();
+            return copy;
+        }
+    }
+}
@@ -1,27 +1,81 @@
 package com.drallinger.sqlite;
 
+import com.drallinger.sqlite.querybuilders.DeleteBuilder;
 import com.drallinger.sqlite.querybuilders.InvalidSQLQueryException;
 import com.drallinger.sqlite.querybuilders.QueryBuilder;
+import com.drallinger.sqlite.querybuilders.SelectBuilder;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.DriverManager;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 
 public class SQLiteDatabase {
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final long IMMUTABLE_MMAP_SIZE = 1L << 30;
+    private static final Pattern QUOTED_OR_COMMENT = Pattern.compile("'(?:[^']|'')*'|\"(?:[^\"]|\"\")*\"|`[^`]*`|\\[[^\\]]*]|--[^\\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern READ_STATEMENT = Pattern.compile("^\\s*(?:SELECT|VALUES|EXPLAIN|BEGIN|COMMIT|END|ROLLBACK|SAVEPOINT|RELEASE|ATTACH|DETACH)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WRITE_KEYWORD = Pattern.compile("\\b(?:INSERT|UPDATE|DELETE|REPLACE(?!\\s*\\())\\b", Pattern.CASE_INSENSITIVE);
     private final String fileName;
     private final HashMap<String, SavedQuery> savedQueries;
     private final HashMap<String, PreparedStatement> preparedStatements;
+    private final CopyOnWriteArrayList<ChangeListener> changeListeners;
+    private final LinkedHashMap<String, SQLFunction> functions;
+    private final LinkedHashMap<String, String> attachedDatabases;
+    private final ArrayList<CounterBuffer> counterBuffers;
+    private final Object readerPoolLock;
     private Connection connection;
+    private volatile ExecutorService changeDispatcher;
+    private volatile ChangeCapture changeCapture;
+    private ExecutorService asyncExecutor;
+    private MaintenanceScheduler maintenanceScheduler;
+    private ExpiryPurger expiryPurger;
+    private ReadConnectionPool readerPool;
+    private int readerPoolSize;
+    private boolean immutable;
+    private boolean immutableMmapSize;
+    private int mutableReaderPoolSize;
+    private boolean recursiveTriggers;
+    private long mmapSize;
+    private ResultLimits defaultResultLimits;
+    private volatile QueryListener queryListener;
+    private int busyRetries;
+    private long busyRetryDelay;
 
     public SQLiteDatabase(String fileName){
         this.fileName = fileName;
         savedQueries = new HashMap<>();
         preparedStatements = new HashMap<>();
+        changeListeners = new CopyOnWriteArrayList<>();
+        functions = new LinkedHashMap<>();
+        attachedDatabases = new LinkedHashMap<>();
+        counterBuffers = new ArrayList<>();
+        readerPoolLock = new Object();
+        busyRetries = 5;
+        busyRetryDelay = 50;
+        readerPoolSize = Runtime.getRuntime().availableProcessors();
         connection = null;
     }
 
@@ -30,22 +84,166 @@ public class SQLiteDatabase {
     }
 
     public void openConnection(){
+        ConnectionEvent event = new ConnectionEvent();
+        event.begin();
         try{
-            connection = DriverManager.getConnection("jdbc:sqlite:" + fileName);
+            connection = DriverManager.getConnection(getConnectionUrl());
+            applyMmapSize(connection);
+            applyRecursiveTriggers(connection);
+            attachDatabases(connection);
+            changeCapture = null;
+            if(!changeListeners.isEmpty()){
+                startChangeDispatcher();
+                installChangeHooks();
+            }
+            for(SQLFunction function : functions.values()){
+                function.register(connection);
+            }
         }catch(SQLException e){
             System.err.println("Failed to connect to database: " + e.getMessage());
             System.exit(0);
         }
+        event.finish(fileName, "main", "open");
     }
 
     public void closeConnection(){
+        ConnectionEvent event = new ConnectionEvent();
+        event.begin();
+        stopMaintenance();
+        stopExpiryPurger();
+        for(CounterBuffer counterBuffer : counterBuffers){
+            counterBuffer.close();
+        }
+        counterBuffers.clear();
+        closeReaderPool();
         preparedStatements.clear();
+        if(changeCapture != null){
+            changeCapture.clear();
+            changeCapture = null;
+        }
+        synchronized(changeListeners){
+            if(changeDispatcher != null){
+                changeDispatcher.shutdown();
+                changeDispatcher = null;
+            }
+        }
+        if(asyncExecutor != null){
+            asyncExecutor.shutdownNow();
+            asyncExecutor = null;
+        }
         try{
             connection.close();
         }catch(SQLException e){
             System.err.println("Failed to disconnect from database: " + e.getMessage());
             System.exit(0);
         }
+        event.finish(fileName, "main", "close");
+    }
+
+    public String getFileName(){
+        return fileName;
+    }
+
+    public void setImmutable(boolean immutable){
+        if(isConnectionOpen()){
+            throw new IllegalStateException("Cannot change immutable mode while the connection is open");
+        }
+        if(immutable && isMemoryDatabase()){
+            throw new IllegalStateException("Immutable mode requires a file database");
+        }
+        this.immutable = immutable;
+        if(immutable){
+            if(mmapSize <= 0){
+                mmapSize = IMMUTABLE_MMAP_SIZE;
+                immutableMmapSize = true;
+            }
+            int immutableReaderPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+            if(readerPoolSize < immutableReaderPoolSize){
+                mutableReaderPoolSize = readerPoolSize;
+                readerPoolSize = immutableReaderPoolSize;
+            }
+        }else{
+            if(immutableMmapSize){
+                mmapSize = 0;
+                immutableMmapSize = false;
+            }
+            if(mutableReaderPoolSize > 0){
+                readerPoolSize = mutableReaderPoolSize;
+                mutableReaderPoolSize = 0;
+            }
+        }
+        closeReaderPool();
+    }
+
+    public boolean isImmutable(){
+        return immutable;
+    }
+
+    public void setMmapSize(long mmapSize){
+        if(mmapSize < 0){
+            throw new IllegalArgumentException("Memory map size cannot be negative");
+        }
+        this.mmapSize = mmapSize;
+        immutableMmapSize = false;
+        closeReaderPool();
+        if(isConnectionOpen()){
+            try{
+                applyMmapSize(connection);
+            }catch(SQLException e){
+                handleError("Failed to set memory map size: " + e.getMessage());
+            }
+        }
+    }
+
+    public void startMaintenance(MaintenanceScheduler.Builder builder){
+        rejectWrites("start maintenance");
+        try{
+            stopMaintenance();
+            MaintenanceScheduler scheduler = builder.build();
+            scheduler.start(this);
+            maintenanceScheduler = scheduler;
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to start maintenance scheduler: " + e.getMessage());
+        }
+    }
+
+    public void stopMaintenance(){
+        if(maintenanceScheduler != null){
+            maintenanceScheduler.stop();
+            maintenanceScheduler = null;
+        }
+    }
+
+    public void startExpiryPurger(ExpiryPurger.Builder builder){
+        rejectWrites("start expiry purger");
+        try{
+            stopExpiryPurger();
+            ExpiryPurger purger = builder.build();
+            purger.start(this);
+            expiryPurger = purger;
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to start expiry purger: " + e.getMessage());
+        }
+    }
+
+    public void stopExpiryPurger(){
+        if(expiryPurger != null){
+            expiryPurger.stop();
+            expiryPurger = null;
+        }
+    }
+
+    public CounterBuffer startCounterBuffer(CounterBuffer.Builder builder){
+        rejectWrites("start counter buffer");
+        try{
+            CounterBuffer counterBuffer = builder.build();
+            counterBuffer.start(this);
+            counterBuffers.add(counterBuffer);
+            return counterBuffer;
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to start counter buffer: " + e.getMessage());
+        }
+        return null;
     }
 
     public boolean isConnectionOpen(){
@@ -77,16 +275,22 @@ public class SQLiteDatabase {
     }
 
     public void commit(){
+        TransactionEvent event = new TransactionEvent();
+        event.begin();
         try{
             connection.commit();
+            event.finish("commit", null, 1);
         }catch(SQLException e){
             handleError("Failed to commit to database: " + e.getMessage());
         }
     }
 
     public void rollback(){
+        TransactionEvent event = new TransactionEvent();
+        event.begin();
         try{
             connection.rollback();
+            event.finish("rollback", null, 1);
         }catch(SQLException e){
             System.err.println("Failed to rollback database: " + e.getMessage());
             closeConnection();
@@ -94,6 +298,151 @@ public class SQLiteDatabase {
         }
     }
 
+    public void addChangeListener(ChangeListener listener){
+        changeListeners.add(listener);
+        startChangeDispatcher();
+        if(changeCapture == null && hasOpenConnection()){
+            try{
+                installChangeHooks();
+            }catch(SQLException e){
+                handleError("Failed to install change hooks: " + e.getMessage());
+            }
+        }
+    }
+
+    public void removeChangeListener(ChangeListener listener){
+        changeListeners.remove(listener);
+    }
+
+    public QueryResult<?> fetchChangedRow(ChangeEvent event, ResultSetHandler handler){
+        if(event.getOperation() == ChangeEvent.Operation.DELETE){
+            return QueryResult.empty();
+        }
+        String query = "SELECT * FROM " + quoteIdentifier(event.getDatabaseName()) + "." + quoteIdentifier(event.getTableName()) + " WHERE rowid = ?;";
+        try(PreparedStatement statement = connection.prepareStatement(query)){
+            statement.setLong(1, event.getRowID());
+            ResultSet resultSet = statement.executeQuery();
+            return handler.handleResultSet(resultSet).build();
+        }catch(SQLException e){
+            handleError("Failed to fetch changed row: " + e.getMessage());
+        }
+        return QueryResult.empty();
+    }
+
+    public void attachDatabase(String fileName, String alias){
+        attachedDatabases.put(alias, fileName);
+        closeReaderPool();
+        if(hasOpenConnection()){
+            try{
+                attachDatabase(connection, fileName, alias);
+            }catch(SQLException e){
+                attachedDatabases.remove(alias);
+                handleError("Failed to attach database: " + e.getMessage());
+            }
+        }
+    }
+
+    public void detachDatabase(String alias){
+        if(attachedDatabases.remove(alias) == null){
+            System.err.println("SQLite ERROR: Cannot detach database: " + alias + " is not attached");
+            return;
+        }
+        closeReaderPool();
+        if(hasOpenConnection()){
+            try{
+                executeStatement("DETACH DATABASE " + quoteIdentifier(alias) + ";");
+            }catch(SQLException e){
+                handleError("Failed to detach database: " + e.getMessage());
+            }
+        }
+    }
+
+    public boolean isDatabaseAttached(String alias){
+        return attachedDatabases.containsKey(alias);
+    }
+
+    public void registerFunction(String name, int argumentCount, boolean deterministic, ScalarFunction function){
+        registerFunction(SQLFunction.scalar(name, argumentCount, deterministic, function));
+    }
+
+    public void registerAggregateFunction(String name, int argumentCount, boolean deterministic, AggregateFunction<?> function){
+        registerFunction(SQLFunction.aggregate(name, argumentCount, deterministic, function));
+    }
+
+    public void registerWindowFunction(String name, int argumentCount, boolean deterministic, WindowFunction<?> function){
+        registerFunction(SQLFunction.aggregate(name, argumentCount, deterministic, function));
+    }
+
+    public void registerCompressionFunctions(CompressionDictionary... dictionaries){
+        HashMap<Integer, CompressionDictionary> dictionariesByID = new HashMap<>();
+        for(CompressionDictionary dictionary : dictionaries){
+            dictionariesByID.put(dictionary.getID(), dictionary);
+        }
+        registerFunction("decompress_text", 1, true, arguments -> {
+            if(!(arguments[0] instanceof byte[] bytes)){
+                return arguments[0];
+            }
+            Integer dictionaryID = Compression.getDictionaryID(bytes);
+            return Compression.decompress(bytes, dictionaryID == null ? null : dictionariesByID.get(dictionaryID));
+        });
+    }
+
+    public void unregisterFunction(String name){
+        SQLFunction function = functions.remove(name);
+        if(function == null){
+            return;
+        }
+        closeReaderPool();
+        if(hasOpenConnection()){
+            try{
+                function.unregister(connection);
+            }catch(SQLException e){
+                handleError("Failed to unregister function: " + e.getMessage());
+            }
+        }
+    }
+
+    private void registerFunction(SQLFunction function){
+        SQLFunction previous = functions.put(function.getName(), function);
+        closeReaderPool();
+        if(hasOpenConnection()){
+            try{
+                if(previous != null && previous.getArgumentCount() != function.getArgumentCount()){
+                    previous.unregister(connection);
+                }
+                function.register(connection);
+            }catch(SQLException e){
+                handleError("Failed to register function: " + e.getMessage());
+            }
+        }
+    }
+
+    public PartitionedTable createPartitionedTable(PartitionedTable.Builder builder){
+        rejectWrites("create partitioned table");
+        try{
+            PartitionedTable table = builder.build(this);
+            table.loadPartitions();
+            return table;
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to create partitioned table: " + e.getMessage());
+        }
+        return null;
+    }
+
+    public SummaryTable createSummaryTable(SummaryTable.Builder builder){
+        rejectWrites("create summary table");
+        try{
+            SummaryTable table = builder.build(this);
+            recursiveTriggers = true;
+            applyRecursiveTriggers(connection);
+            table.install();
+            return table;
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to create summary table: " + e.getMessage());
+        }
+        return null;
+    }
+
     public void saveQuery(SavedQuery.Builder builder){
         try{
             SavedQuery query = builder.build();
@@ -110,12 +459,15 @@ public class SQLiteDatabase {
                     throw new IllegalArgumentException("Query " + queryName + " has not been saved");
                 }
                 SavedQuery savedQuery = savedQueries.get(queryName);
+                StatementPrepareEvent event = new StatementPrepareEvent();
+                event.begin();
                 PreparedStatement statement;
                 if(savedQuery.returnCreatedIDs()){
                     statement = connection.prepareStatement(savedQuery.getQuery(), Statement.RETURN_GENERATED_KEYS);
                 }else{
                     statement = connection.prepareStatement(savedQuery.getQuery());
                 }
+                event.finish(queryName, savedQuery.getQuery());
                 preparedStatements.put(queryName, statement);
             }
         }catch(SQLException|IllegalArgumentException e){
@@ -124,9 +476,13 @@ public class SQLiteDatabase {
     }
 
     public ResultSet executeQuery(String query){
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
         try{
             Statement statement = connection.createStatement();
-            return statement.executeQuery(query);
+            ResultSet resultSet = statement.executeQuery(query);
+            event.finishRaw(query, false, -1);
+            return resultSet;
         }catch(SQLException e){
             handleError("Failed to execute query: " + e.getMessage());
         }
@@ -137,10 +493,49 @@ public class SQLiteDatabase {
         return executeQuery(buildQuery(builder));
     }
 
+    public ResultSet executeQuery(String query, long timeout){
+        if(timeout <= 0){
+            return executeQuery(query);
+        }
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
+        try{
+            Statement statement = connection.createStatement();
+            QueryDeadline deadline = null;
+            try{
+                deadline = QueryDeadline.open(statement, timeout, null);
+                ResultSet resultSet = deadline.call(() -> statement.executeQuery(query));
+                statement.closeOnCompletion();
+                event.finishRaw(query, false, -1);
+                return deadline.bind(resultSet);
+            }catch(SQLException|RuntimeException e){
+                if(deadline != null){
+                    deadline.close();
+                }
+                statement.close();
+                throw e;
+            }
+        }catch(QueryCancelledException e){
+            System.err.println("SQLite ERROR: Query cancelled: " + e.getMessage());
+        }catch(SQLException e){
+            handleError("Failed to execute query: " + e.getMessage());
+        }
+        return null;
+    }
+
+    public ResultSet executeQuery(QueryBuilder builder, long timeout){
+        return executeQuery(buildQuery(builder), timeout);
+    }
+
     public void executeUpdate(String query){
+        rejectWrites("execute update");
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
         try{
             Statement statement = connection.createStatement();
-            statement.executeUpdate(query);
+            int rows = statement.executeUpdate(query);
+            trackSavepoint(query);
+            event.finishRaw(query, true, rows);
         }catch(SQLException e){
             handleError("Failed to execute update: " + e.getMessage());
         }
@@ -150,10 +545,57 @@ public class SQLiteDatabase {
         executeUpdate(buildQuery(builder));
     }
 
+    public void executeUpdate(String query, long timeout){
+        rejectWrites("execute update");
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
+        try(Statement statement = connection.createStatement()){
+            int rows = QueryDeadline.run(statement, timeout, null, () -> statement.executeUpdate(query));
+            trackSavepoint(query);
+            event.finishRaw(query, true, rows);
+        }catch(QueryCancelledException e){
+            System.err.println("SQLite ERROR: Update cancelled: " + e.getMessage());
+        }catch(SQLException e){
+            handleError("Failed to execute update: " + e.getMessage());
+        }
+    }
+
+    public void executeUpdate(QueryBuilder builder, long timeout){
+        executeUpdate(buildQuery(builder), timeout);
+    }
+
+    public long executeChunkedDelete(DeleteBuilder builder, int batchSize){
+        return executeChunkedDelete(builder, batchSize, 0);
+    }
+
+    public long executeChunkedDelete(DeleteBuilder builder, int batchSize, long pause){
+        rejectWrites("execute chunked delete");
+        try{
+            if(builder.getTableName() == null || builder.getTableName().isEmpty()){
+                throw new IllegalArgumentException("Missing table name");
+            }
+            if(batchSize <= 0){
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
+            QueryExecutionEvent event = new QueryExecutionEvent();
+            event.begin();
+            long deleted = ChunkedDelete.run(connection, builder.getTableName(), builder.getWhere(), batchSize, pause, 0);
+            event.finishRaw(buildQuery(builder), true, deleted);
+            return deleted;
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to execute chunked delete: " + e.getMessage());
+        }
+        return -1;
+    }
+
     public ResultSet executeUpdateAndGetIDs(String query){
+        rejectWrites("execute update");
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
         try{
             Statement statement = connection.createStatement();
-            statement.executeUpdate(query);
+            int rows = statement.executeUpdate(query);
+            event.finishRaw(query, true, rows);
             return statement.getGeneratedKeys();
         }catch(SQLException e){
             handleError("Failed to execute update: " + e.getMessage());
@@ -166,9 +608,13 @@ public class SQLiteDatabase {
     }
 
     public int executeUpdateAndGetIntID(String query){
+        rejectWrites("execute update");
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
         try{
             Statement statement = connection.createStatement();
-            statement.executeUpdate(query);
+            int rows = statement.executeUpdate(query);
+            event.finishRaw(query, true, rows);
             ResultSet resultSet = statement.getGeneratedKeys();
             if(resultSet.next()){
                 return resultSet.getInt(1);
@@ -184,9 +630,13 @@ public class SQLiteDatabase {
     }
 
     public String executeUpdateAndGetStringID(String query){
+        rejectWrites("execute update");
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
         try{
             Statement statement = connection.createStatement();
-            statement.executeUpdate(query);
+            int rows = statement.executeUpdate(query);
+            event.finishRaw(query, true, rows);
             ResultSet resultSet = statement.getGeneratedKeys();
             if(resultSet.next()){
                 return resultSet.getString(1);
@@ -202,42 +652,123 @@ public class SQLiteDatabase {
     }
 
     public QueryResult<?> executeSavedQuery(String queryName, QueryValue<?>... values){
+        return executeSavedQuery(queryName, 0, values);
+    }
+
+    public QueryResult<?> executeSavedQuery(String queryName, long timeout, QueryValue<?>... values){
         try{
-            if(!savedQueries.containsKey(queryName)){
-                throw new IllegalArgumentException("Query " + queryName + " has not been saved");
-            }
-            if(!preparedStatements.containsKey(queryName)){
-                throw new IllegalArgumentException("Query " + queryName + " has not been prepared");
-            }
-            SavedQuery savedQuery = savedQueries.get(queryName);
-            if(!savedQuery.hasHandler()){
-                throw new IllegalArgumentException("Query " + queryName + " is missing a handler");
-            }
-            PreparedStatement statement = preparedStatements.get(queryName);
-            addValuesToStatement(statement, values);
-            ResultSet resultSet = statement.executeQuery();
-            QueryResult.Builder<?> builder = savedQuery.getHandler().handleResultSet(resultSet);
-            return builder.build();
+            return runSavedQuery(queryName, timeout, null, values);
+        }catch(QueryCancelledException e){
+            System.err.println("SQLite ERROR: Saved query " + queryName + " cancelled: " + e.getMessage());
+            return QueryResult.failed("Saved query " + queryName + " cancelled: " + e.getMessage());
+        }catch(ResultLimitExceededException e){
+            System.err.println("SQLite ERROR: Saved query " + queryName + " result too large: " + e.getMessage());
+            return QueryResult.failed("Saved query " + queryName + " result too large: " + e.getMessage());
         }catch(SQLException|IllegalArgumentException e){
             handleError("Failed to execute saved query: " + e.getMessage());
         }
         return QueryResult.empty();
     }
 
-    public void executeSavedUpdate(String queryName, QueryValue<?>... values){
+    public QueryResult<?> executeSavedQueryOrThrow(String queryName, QueryValue<?>... values) throws SQLException{
+        return runSavedQuery(queryName, 0, null, values);
+    }
+
+    public IntQueryResult executeSavedQueryForInts(String queryName, QueryValue<?>... values){
         try{
-            if(!preparedStatements.containsKey(queryName)){
-                throw new IllegalArgumentException("Query " + queryName + " has not been prepared");
+            return runSavedRead(queryName, 0, null, resultSet -> IntQueryResult.fromResultSet(resultSet, 1), values);
+        }catch(QueryCancelledException e){
+            System.err.println("SQLite ERROR: Saved query " + queryName + " cancelled: " + e.getMessage());
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to execute saved query: " + e.getMessage());
+        }
+        return new IntQueryResult.Builder().build();
+    }
+
+    public LongQueryResult executeSavedQueryForLongs(String queryName, QueryValue<?>... values){
+        try{
+            return runSavedRead(queryName, 0, null, resultSet -> LongQueryResult.fromResultSet(resultSet, 1), values);
+        }catch(QueryCancelledException e){
+            System.err.println("SQLite ERROR: Saved query " + queryName + " cancelled: " + e.getMessage());
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to execute saved query: " + e.getMessage());
+        }
+        return new LongQueryResult.Builder().build();
+    }
+
+    public DoubleQueryResult executeSavedQueryForDoubles(String queryName, QueryValue<?>... values){
+        try{
+            return runSavedRead(queryName, 0, null, resultSet -> DoubleQueryResult.fromResultSet(resultSet, 1), values);
+        }catch(QueryCancelledException e){
+            System.err.println("SQLite ERROR: Saved query " + queryName + " cancelled: " + e.getMessage());
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to execute saved query: " + e.getMessage());
+        }
+        return new DoubleQueryResult.Builder().build();
+    }
+
+    public ColumnarQueryResult executeSavedQueryColumnar(String queryName, QueryValue<?>... values){
+        try{
+            return runSavedRead(queryName, 0, null, ColumnarQueryResult::fromResultSet, values);
+        }catch(QueryCancelledException e){
+            System.err.println("SQLite ERROR: Saved query " + queryName + " cancelled: " + e.getMessage());
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to execute saved query: " + e.getMessage());
+        }
+        return ColumnarQueryResult.empty();
+    }
+
+    public CompletableFuture<QueryResult<?>> executeSavedQueryAsync(String queryName, QueryValue<?>... values){
+        CompletableFuture<QueryResult<?>> future = new CompletableFuture<>();
+        getAsyncExecutor().execute(() -> {
+            if(future.isDone()){
+                return;
             }
-            PreparedStatement statement = preparedStatements.get(queryName);
-            addValuesToStatement(statement, values);
-            statement.executeUpdate();
+            if(isMemoryDatabase()){
+                try{
+                    future.complete(runSavedQuery(queryName, 0, future, values));
+                }catch(SQLException|RuntimeException e){
+                    future.completeExceptionally(e);
+                }
+                return;
+            }
+            PooledConnection pooledConnection = null;
+            try{
+                pooledConnection = acquireReader();
+                future.complete(runSavedQuery(pooledConnection, queryName, 0, future, values));
+            }catch(SQLException|RuntimeException e){
+                future.completeExceptionally(e);
+            }finally{
+                if(pooledConnection != null){
+                    releaseReader(pooledConnection);
+                }
+            }
+        });
+        return future;
+    }
+
+    public void executeSavedUpdate(String queryName, QueryValue<?>... values){
+        executeSavedUpdate(queryName, 0, values);
+    }
+
+    public void executeSavedUpdate(String queryName, long timeout, QueryValue<?>... values){
+        rejectWrites("execute saved update");
+        try{
+            runSavedUpdate(queryName, timeout, values);
+        }catch(QueryCancelledException e){
+            System.err.println("SQLite ERROR: Saved update " + queryName + " cancelled: " + e.getMessage());
         }catch(SQLException|IllegalArgumentException e){
             handleError("Failed to execute saved update: " + e.getMessage());
         }
     }
 
+    public void executeSavedUpdateOrThrow(String queryName, QueryValue<?>... values) throws SQLException{
+        rejectWrites("execute saved update");
+        runSavedUpdate(queryName, 0, values);
+    }
+
     public QueryResult<?> executeSavedUpdateAndGetIDs(String queryName, QueryValue<?>... values){
+        rejectWrites("execute saved update");
         try{
             if(!savedQueries.containsKey(queryName)){
                 throw new IllegalArgumentException("Query " + queryName + " has not been saved");
@@ -254,7 +785,10 @@ public class SQLiteDatabase {
             }
             PreparedStatement statement = preparedStatements.get(queryName);
             addValuesToStatement(statement, values);
-            statement.executeUpdate();
+            QueryExecutionEvent event = new QueryExecutionEvent();
+            event.begin();
+            int rows = statement.executeUpdate();
+            event.finishSaved(queryName, savedQuery.getQuery(), true, rows);
             ResultSet resultSet = statement.getGeneratedKeys();
             QueryResult.Builder<?> builder = savedQuery.getHandler().handleResultSet(resultSet);
             return builder.build();
@@ -265,6 +799,7 @@ public class SQLiteDatabase {
     }
 
     public int executeSavedUpdateAndGetIntID(String queryName, QueryValue<?>... values){
+        rejectWrites("execute saved update");
         try{
             if(!savedQueries.containsKey(queryName)){
                 throw new IllegalArgumentException("Query " + queryName + " has not been saved");
@@ -278,7 +813,10 @@ public class SQLiteDatabase {
             }
             PreparedStatement statement = preparedStatements.get(queryName);
             addValuesToStatement(statement, values);
-            statement.executeUpdate();
+            QueryExecutionEvent event = new QueryExecutionEvent();
+            event.begin();
+            int rows = statement.executeUpdate();
+            event.finishSaved(queryName, savedQuery.getQuery(), true, rows);
             ResultSet resultSet = statement.getGeneratedKeys();
             if(resultSet.next()){
                 return resultSet.getInt(1);
@@ -290,6 +828,7 @@ public class SQLiteDatabase {
     }
 
     public String executeSavedUpdateAndGetStringID(String queryName, QueryValue<?>... values){
+        rejectWrites("execute saved update");
         try{
             if(!savedQueries.containsKey(queryName)){
                 throw new IllegalArgumentException("Query " + queryName + " has not been saved");
@@ -303,7 +842,10 @@ public class SQLiteDatabase {
             }
             PreparedStatement statement = preparedStatements.get(queryName);
             addValuesToStatement(statement, values);
-            statement.executeUpdate();
+            QueryExecutionEvent event = new QueryExecutionEvent();
+            event.begin();
+            int rows = statement.executeUpdate();
+            event.finishSaved(queryName, savedQuery.getQuery(), true, rows);
             ResultSet resultSet = statement.getGeneratedKeys();
             if(resultSet.next()){
                 return resultSet.getString(1);
@@ -314,6 +856,545 @@ public class SQLiteDatabase {
         return null;
     }
 
+    public long exportQuery(SelectBuilder builder, Path path, QueryExporter.Format format){
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+            return exportQuery(builder, channel, format);
+        }catch(IOException e){
+            handleError("Failed to export query: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    public long exportQuery(SelectBuilder builder, WritableByteChannel channel, QueryExporter.Format format){
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
+        try(Statement statement = connection.createStatement()){
+            statement.setFetchSize(EXPORT_FETCH_SIZE);
+            String query = builder.build();
+            ResultSet resultSet = statement.executeQuery(query);
+            long rows = new QueryExporter(channel).export(resultSet, format);
+            event.finishRaw(query, false, rows);
+            return rows;
+        }catch(SQLException|IOException e){
+            handleError("Failed to export query: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    public void setReaderPoolSize(int readerPoolSize){
+        if(readerPoolSize <= 0){
+            handleError("Reader pool size must be positive");
+        }
+        this.readerPoolSize = readerPoolSize;
+        mutableReaderPoolSize = 0;
+        closeReaderPool();
+    }
+
+    public QueryResult<?> parallelScan(SelectBuilder builder, int partitions, ResultSetHandler handler, ResultCombiner combiner){
+        return parallelScan(builder, "rowid", partitions, handler, combiner);
+    }
+
+    public QueryResult<?> parallelScan(SelectBuilder builder, String keyColumn, int partitions, ResultSetHandler handler, ResultCombiner combiner){
+        try{
+            if(partitions <= 0){
+                throw new IllegalArgumentException("Partition count must be positive");
+            }
+            return new ParallelScan(this, builder, keyColumn, handler, combiner).run(partitions);
+        }catch(SQLException|IllegalArgumentException e){
+            handleError("Failed to execute parallel scan: " + e.getMessage());
+        }
+        return QueryResult.empty();
+    }
+
+    public void setQueryListener(QueryListener queryListener){
+        this.queryListener = queryListener;
+    }
+
+    public void setDefaultResultLimits(ResultLimits defaultResultLimits){
+        this.defaultResultLimits = defaultResultLimits;
+    }
+
+    public void setBusyRetries(int busyRetries, long busyRetryDelay){
+        this.busyRetries = busyRetries;
+        this.busyRetryDelay = busyRetryDelay;
+    }
+
+    public <T> T inTransaction(TransactionCallback<T> callback){
+        return inTransaction(Transaction.Mode.DEFERRED, callback);
+    }
+
+    public <T> T inTransaction(Transaction.Mode mode, TransactionCallback<T> callback){
+        if(mode != Transaction.Mode.DEFERRED){
+            rejectWrites("begin a write transaction");
+        }
+        TransactionEvent event = new TransactionEvent();
+        event.begin();
+        for(int attempt = 0; ; attempt++){
+            boolean began = false;
+            try{
+                if(!connection.getAutoCommit()){
+                    throw new IllegalArgumentException("Cannot begin a scoped transaction while auto commit is disabled");
+                }
+                executeStatement("BEGIN " + mode.name() + ";");
+                began = true;
+                T result = callback.execute(new Transaction(this, connection));
+                executeStatement("COMMIT;");
+                event.finish("commit", mode.name(), attempt + 1);
+                return result;
+            }catch(SQLException e){
+                if(began){
+                    rollbackQuietly();
+                }
+                if(isBusyError(e) && attempt < busyRetries && waitForRetry(attempt)){
+                    continue;
+                }
+                event.finish("rollback", mode.name(), attempt + 1);
+                throw new TransactionFailedException("Failed to execute transaction: " + e.getMessage(), e);
+            }catch(RuntimeException e){
+                if(began){
+                    rollbackQuietly();
+                }
+                event.finish("rollback", mode.name(), attempt + 1);
+                throw e;
+            }
+        }
+    }
+
+    public <T> T readSnapshot(SnapshotCallback<T> callback){
+        TransactionEvent event = new TransactionEvent();
+        event.begin();
+        if(isMemoryDatabase()){
+            boolean began = false;
+            try{
+                if(connection.getAutoCommit()){
+                    executeStatement("BEGIN DEFERRED;");
+                    began = true;
+                }
+                ReadSnapshot snapshot = new ReadSnapshot(this, null, connection);
+                T result;
+                try{
+                    result = callback.execute(snapshot);
+                }finally{
+                    snapshot.close();
+                }
+                if(began){
+                    executeStatement("COMMIT;");
+                }
+                event.finish("snapshot", "DEFERRED", 1);
+                return result;
+            }catch(SQLException e){
+                if(began){
+                    rollbackQuietly();
+                }
+                event.finish("rollback", "DEFERRED", 1);
+                handleError("Failed to read snapshot: " + e.getMessage());
+                return null;
+            }catch(RuntimeException e){
+                if(began){
+                    rollbackQuietly();
+                }
+                event.finish("rollback", "DEFERRED", 1);
+                throw e;
+            }
+        }
+        PooledConnection pooledConnection = null;
+        ReadSnapshot snapshot = null;
+        boolean began = false;
+        try{
+            pooledConnection = acquireReader();
+            Connection readerConnection = pooledConnection.getConnection();
+            try(Statement statement = readerConnection.createStatement()){
+                if(!immutable){
+                    try(ResultSet resultSet = statement.executeQuery("PRAGMA journal_mode;")){
+                        String journalMode = resultSet.next() ? resultSet.getString(1) : "";
+                        if(!"wal".equalsIgnoreCase(journalMode)){
+                            throw new IllegalStateException("Read snapshots require WAL journal mode, but the database uses " + journalMode + " and would block writers");
+                        }
+                    }
+                }
+                statement.execute("BEGIN DEFERRED;");
+                began = true;
+                statement.executeQuery("SELECT count(*) FROM sqlite_master;").close();
+            }
+            snapshot = new ReadSnapshot(this, pooledConnection, readerConnection);
+            T result = callback.execute(snapshot);
+            snapshot.close();
+            try(Statement statement = readerConnection.createStatement()){
+                began = false;
+                statement.execute("COMMIT;");
+            }
+            event.finish("snapshot", "DEFERRED", 1);
+            return result;
+        }catch(SQLException e){
+            event.finish("rollback", "DEFERRED", 1);
+            handleError("Failed to read snapshot: " + e.getMessage());
+            return null;
+        }catch(RuntimeException e){
+            event.finish("rollback", "DEFERRED", 1);
+            throw e;
+        }finally{
+            if(snapshot != null){
+                snapshot.close();
+            }
+            if(pooledConnection != null){
+                if(began){
+                    try(Statement statement = pooledConnection.getConnection().createStatement()){
+                        statement.execute("ROLLBACK;");
+                    }catch(SQLException e){
+                        System.err.println("Failed to end read snapshot: " + e.getMessage());
+                    }
+                }
+                releaseReader(pooledConnection);
+            }
+        }
+    }
+
+    QueryResult<?> runSavedQuery(String queryName, long timeout, Future<?> future, QueryValue<?>... values) throws SQLException{
+        SavedQuery savedQuery = savedQueries.get(queryName);
+        if(savedQuery != null && !savedQuery.hasHandler()){
+            throw new IllegalArgumentException("Query " + queryName + " is missing a handler");
+        }
+        return runSavedRead(queryName, timeout, future, resultSet -> savedQuery.getHandler().handleResultSet(resultSet).build(), values);
+    }
+
+    <R> R runSavedRead(String queryName, long timeout, Future<?> future, ResultSetReader<R> reader, QueryValue<?>... values) throws SQLException{
+        if(!savedQueries.containsKey(queryName)){
+            throw new IllegalArgumentException("Query " + queryName + " has not been saved");
+        }
+        if(!preparedStatements.containsKey(queryName)){
+            throw new IllegalArgumentException("Query " + queryName + " has not been prepared");
+        }
+        return runSavedRead(queryName, preparedStatements.get(queryName), timeout, future, reader, values);
+    }
+
+    QueryResult<?> runSavedQuery(PooledConnection pooledConnection, String queryName, long timeout, Future<?> future, QueryValue<?>... values) throws SQLException{
+        SavedQuery savedQuery = savedQueries.get(queryName);
+        if(savedQuery == null){
+            throw new IllegalArgumentException("Query " + queryName + " has not been saved");
+        }
+        if(!savedQuery.hasHandler()){
+            throw new IllegalArgumentException("Query " + queryName + " is missing a handler");
+        }
+        PreparedStatement statement = pooledConnection.prepareStatement(savedQuery.getQuery());
+        return runSavedRead(queryName, statement, timeout, future, resultSet -> savedQuery.getHandler().handleResultSet(resultSet).build(), values);
+    }
+
+    private <R> R runSavedRead(String queryName, PreparedStatement statement, long timeout, Future<?> future, ResultSetReader<R> reader, QueryValue<?>... values) throws SQLException{
+        SavedQuery savedQuery = savedQueries.get(queryName);
+        synchronized(statement){
+            addValuesToStatement(statement, values);
+            long deadline = timeout > 0 ? timeout : savedQuery.getTimeout();
+            ResultLimits limits = savedQuery.getResultLimits() != null ? savedQuery.getResultLimits() : defaultResultLimits;
+            long startTime = System.nanoTime();
+            QueryExecutionEvent event = new QueryExecutionEvent();
+            event.begin();
+            R result = null;
+            try{
+                result = QueryDeadline.run(statement, deadline, future, () -> {
+                    ResultLimits previousLimits = ResultLimits.setCurrent(limits);
+                    try{
+                        try(ResultSet resultSet = statement.executeQuery()){
+                            return reader.read(resultSet);
+                        }
+                    }finally{
+                        ResultLimits.setCurrent(previousLimits);
+                    }
+                });
+                return result;
+            }finally{
+                notifyQueryListener(queryName, false, values, startTime);
+                event.finishSaved(queryName, savedQuery.getQuery(), false, resultSize(result));
+            }
+        }
+    }
+
+    void runSavedUpdate(String queryName, long timeout, QueryValue<?>... values) throws SQLException{
+        if(immutable){
+            throw new IllegalStateException("Cannot execute saved update on an immutable database");
+        }
+        if(!preparedStatements.containsKey(queryName)){
+            throw new IllegalArgumentException("Query " + queryName + " has not been prepared");
+        }
+        SavedQuery savedQuery = savedQueries.get(queryName);
+        PreparedStatement statement = preparedStatements.get(queryName);
+        synchronized(statement){
+            addValuesToStatement(statement, values);
+            long deadline = timeout > 0 || savedQuery == null ? timeout : savedQuery.getTimeout();
+            long startTime = System.nanoTime();
+            QueryExecutionEvent event = new QueryExecutionEvent();
+            event.begin();
+            int rows = -1;
+            try{
+                rows = QueryDeadline.run(statement, deadline, null, statement::executeUpdate);
+            }finally{
+                notifyQueryListener(queryName, true, values, startTime);
+                event.finishSaved(queryName, savedQuery == null ? null : savedQuery.getQuery(), true, rows);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface ResultSetReader<R>{
+        R read(ResultSet resultSet) throws SQLException;
+    }
+
+    private long resultSize(Object result){
+        if(result instanceof QueryResult<?> queryResult){
+            return queryResult.size();
+        }else if(result instanceof IntQueryResult intResult){
+            return intResult.size();
+        }else if(result instanceof LongQueryResult longResult){
+            return longResult.size();
+        }else if(result instanceof DoubleQueryResult doubleResult){
+            return doubleResult.size();
+        }else if(result instanceof ColumnarQueryResult columnarResult){
+            return columnarResult.size();
+        }
+        return -1;
+    }
+
+    private void notifyQueryListener(String queryName, boolean update, QueryValue<?>[] values, long startTime){
+        QueryListener listener = queryListener;
+        if(listener != null){
+            listener.onQuery(queryName, update, values, startTime, System.nanoTime() - startTime);
+        }
+    }
+
+    int[] runSavedUpdateBatch(String queryName, Iterable<QueryValue<?>[]> rows) throws SQLException{
+        if(immutable){
+            throw new IllegalStateException("Cannot execute saved update on an immutable database");
+        }
+        if(!preparedStatements.containsKey(queryName)){
+            throw new IllegalArgumentException("Query " + queryName + " has not been prepared");
+        }
+        SavedQuery savedQuery = savedQueries.get(queryName);
+        PreparedStatement statement = preparedStatements.get(queryName);
+        synchronized(statement){
+            for(QueryValue<?>[] values : rows){
+                addValuesToStatement(statement, values);
+                statement.addBatch();
+            }
+            QueryExecutionEvent event = new QueryExecutionEvent();
+            event.begin();
+            int[] counts = statement.executeBatch();
+            long total = 0;
+            for(int count : counts){
+                total += Math.max(count, 0);
+            }
+            event.finishSaved(queryName, savedQuery == null ? null : savedQuery.getQuery(), true, total);
+            return counts;
+        }
+    }
+
+    Connection openBackgroundConnection() throws SQLException{
+        if(isMemoryDatabase()){
+            throw new IllegalArgumentException("Background connections require a file database");
+        }
+        ConnectionEvent event = new ConnectionEvent();
+        event.begin();
+        Connection backgroundConnection = DriverManager.getConnection(getConnectionUrl());
+        try{
+            applyMmapSize(backgroundConnection);
+            applyRecursiveTriggers(backgroundConnection);
+            attachDatabases(backgroundConnection);
+            new ChangeCapture(this).install(backgroundConnection);
+        }catch(SQLException e){
+            backgroundConnection.close();
+            throw e;
+        }
+        event.finish(fileName, "background", "open");
+        return backgroundConnection;
+    }
+
+    void closeBackgroundConnection(Connection backgroundConnection) throws SQLException{
+        ConnectionEvent event = new ConnectionEvent();
+        event.begin();
+        backgroundConnection.close();
+        event.finish(fileName, "background", "close");
+    }
+
+    private ExecutorService getAsyncExecutor(){
+        if(asyncExecutor == null){
+            asyncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "SQLiteDatabase-async");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return asyncExecutor;
+    }
+
+    PooledConnection acquireReader() throws SQLException{
+        while(true){
+            PooledConnection pooledConnection = getReaderPool().acquire();
+            if(pooledConnection != null){
+                return pooledConnection;
+            }
+        }
+    }
+
+    void releaseReader(PooledConnection pooledConnection){
+        pooledConnection.getPool().release(pooledConnection);
+    }
+
+    int getReaderPoolSize(){
+        return readerPoolSize;
+    }
+
+    private ReadConnectionPool getReaderPool(){
+        if(isMemoryDatabase()){
+            throw new IllegalArgumentException("Reader connections require a file database");
+        }
+        synchronized(readerPoolLock){
+            if(readerPool == null){
+                LinkedHashMap<String, String> readerAttachments = new LinkedHashMap<>(attachedDatabases);
+                List<SQLFunction> readerFunctions = List.copyOf(functions.values());
+                readerPool = new ReadConnectionPool(fileName, getConnectionUrl(), readerPoolSize, readerConnection -> initializeReaderConnection(readerConnection, readerAttachments, readerFunctions));
+            }
+            return readerPool;
+        }
+    }
+
+    private void attachDatabases(Connection target) throws SQLException{
+        for(Map.Entry<String, String> attachment : attachedDatabases.entrySet()){
+            attachDatabase(target, attachment.getValue(), attachment.getKey());
+        }
+    }
+
+    private void attachDatabase(Connection target, String attachedFileName, String alias) throws SQLException{
+        try(PreparedStatement statement = target.prepareStatement("ATTACH DATABASE ? AS " + quoteIdentifier(alias) + ";")){
+            statement.setString(1, attachedFileName);
+            statement.execute();
+        }
+    }
+
+    private void initializeReaderConnection(Connection readerConnection, Map<String, String> readerAttachments, List<SQLFunction> readerFunctions) throws SQLException{
+        applyMmapSize(readerConnection);
+        for(Map.Entry<String, String> attachment : readerAttachments.entrySet()){
+            attachDatabase(readerConnection, attachment.getValue(), attachment.getKey());
+        }
+        try(Statement statement = readerConnection.createStatement()){
+            statement.execute("PRAGMA query_only = 1;");
+        }
+        for(SQLFunction function : readerFunctions){
+            function.register(readerConnection);
+        }
+    }
+
+    private void closeReaderPool(){
+        ReadConnectionPool pool;
+        synchronized(readerPoolLock){
+            pool = readerPool;
+            readerPool = null;
+        }
+        if(pool != null){
+            pool.close();
+        }
+    }
+
+    private String getConnectionUrl(){
+        if(immutable){
+            return "jdbc:sqlite:file:" + encodeUriPath(fileName) + "?mode=ro&immutable=1";
+        }
+        return "jdbc:sqlite:" + fileName;
+    }
+
+    private void applyMmapSize(Connection target) throws SQLException{
+        if(mmapSize > 0){
+            try(Statement statement = target.createStatement()){
+                statement.execute("PRAGMA mmap_size = " + mmapSize + ";");
+            }
+        }
+    }
+
+    private void applyRecursiveTriggers(Connection target) throws SQLException{
+        if(recursiveTriggers){
+            try(Statement statement = target.createStatement()){
+                statement.execute("PRAGMA recursive_triggers = ON;");
+            }
+        }
+    }
+
+    private static String encodeUriPath(String path){
+        StringBuilder encoded = new StringBuilder(path.length() + 16);
+        for(byte b : path.getBytes(StandardCharsets.UTF_8)){
+            char c = (char) (b & 0xFF);
+            if((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || "-._~/".indexOf(c) >= 0){
+                encoded.append(c);
+            }else{
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16))).append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private void rejectWrites(String operation){
+        if(immutable){
+            throw new IllegalStateException("Cannot " + operation + " on an immutable database");
+        }
+    }
+
+    void rejectWriteStatement(String query){
+        if(immutable && isWriteStatement(query)){
+            throw new IllegalStateException("Cannot execute a write statement on an immutable database");
+        }
+    }
+
+    private static boolean isWriteStatement(String query){
+        String statement = QUOTED_OR_COMMENT.matcher(query).replaceAll(" ").trim();
+        if(READ_STATEMENT.matcher(statement).find()){
+            return false;
+        }
+        String keyword = statement.split("[\\s(]", 2)[0].toUpperCase();
+        return switch(keyword){
+            case "WITH" -> WRITE_KEYWORD.matcher(statement).find();
+            case "PRAGMA" -> statement.contains("=");
+            default -> true;
+        };
+    }
+
+    private boolean hasOpenConnection(){
+        try{
+            return connection != null && !connection.isClosed();
+        }catch(SQLException e){
+            return false;
+        }
+    }
+
+    private boolean isMemoryDatabase(){
+        return fileName.isEmpty() || fileName.equals(":memory:") || fileName.contains("mode=memory");
+    }
+
+    private void executeStatement(String query) throws SQLException{
+        try(Statement statement = connection.createStatement()){
+            statement.execute(query);
+        }
+        trackSavepoint(query);
+    }
+
+    private void rollbackQuietly(){
+        try{
+            executeStatement("ROLLBACK;");
+        }catch(SQLException e){
+            System.err.println("Failed to rollback transaction: " + e.getMessage());
+        }
+    }
+
+    private boolean isBusyError(SQLException e){
+        int code = e.getErrorCode() & 0xFF;
+        return code == SQLITE_BUSY || code == SQLITE_LOCKED;
+    }
+
+    private boolean waitForRetry(int attempt){
+        try{
+            Thread.sleep(busyRetryDelay * (attempt + 1));
+            return true;
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     private String buildQuery(QueryBuilder builder){
         try{
             return builder.build();
@@ -330,16 +1411,64 @@ public class SQLiteDatabase {
                 case INTEGER -> statement.setInt((i + 1), (Integer) value.getValue());
                 case REAL -> statement.setDouble((i + 1), (Double) value.getValue());
                 case TEXT -> statement.setString((i + 1), (String) value.getValue());
+                case BLOB -> statement.setBytes((i + 1), (byte[]) value.getValue());
+            }
+        }
+    }
+
+    private void installChangeHooks() throws SQLException{
+        ChangeCapture capture = new ChangeCapture(this);
+        capture.install(connection);
+        changeCapture = capture;
+    }
+
+    boolean hasChangeListeners(){
+        return !changeListeners.isEmpty();
+    }
+
+    void trackSavepoint(String query){
+        ChangeCapture capture = changeCapture;
+        if(capture != null){
+            capture.trackSavepoint(query);
+        }
+    }
+
+    private void startChangeDispatcher(){
+        synchronized(changeListeners){
+            if(changeDispatcher == null){
+                changeDispatcher = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "SQLiteDatabase-changes");
+                    thread.setDaemon(true);
+                    return thread;
+                });
             }
         }
     }
 
-    private void handleError(String message){
+    private static String quoteIdentifier(String identifier){
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    void dispatchChanges(List<ChangeEvent> changes){
+        ExecutorService dispatcher = changeDispatcher;
+        if(dispatcher == null){
+            return;
+        }
+        dispatcher.execute(() -> {
+            for(ChangeListener listener : changeListeners){
+                listener.onChanges(changes);
+            }
+        });
+    }
+
+    void handleError(String message){
         System.err.println("SQLite ERROR: " + message);
-        if(isAutoCommitEnabled()){
-            rollback();
+        if(isConnectionOpen()){
+            if(!isAutoCommitEnabled()){
+                rollback();
+            }
+            closeConnection();
         }
-        closeConnection();
         System.exit(0);
     }
 }
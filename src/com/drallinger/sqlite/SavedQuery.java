@@ -9,12 +9,16 @@ public class SavedQuery {
     private final ResultSetHandler handler;
 
     private final boolean returnCreatedIDs;
+    private final long timeout;
+    private final ResultLimits resultLimits;
 
     private SavedQuery(Builder builder){
         name = builder.name;
         query = builder.query;
         handler = builder.handler;
         returnCreatedIDs = builder.returnCreatedIDs;
+        timeout = builder.timeout;
+        resultLimits = builder.resultLimits;
     }
 
     public static SavedQuery.Builder createBuilder(){
@@ -27,6 +31,8 @@ public class SavedQuery {
         private QueryBuilder queryBuilder;
         private ResultSetHandler handler;
         private boolean returnCreatedIDs;
+        private long timeout;
+        private ResultLimits resultLimits;
 
         private Builder(){};
 
@@ -59,6 +65,16 @@ public class SavedQuery {
             return returnCreatedIDs(true);
         }
 
+        public Builder setTimeout(long timeout){
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder setResultLimits(ResultLimits resultLimits){
+            this.resultLimits = resultLimits;
+            return this;
+        }
+
         public SavedQuery build() throws IllegalArgumentException, InvalidSQLQueryException{
             if(query == null && queryBuilder != null){
                 query = queryBuilder.build();
@@ -69,6 +85,9 @@ public class SavedQuery {
             if(query == null || query.isEmpty()){
                 throw new IllegalArgumentException("SavedQuery missing query");
             }
+            if(timeout < 0){
+                throw new IllegalArgumentException("SavedQuery timeout cannot be negative");
+            }
             return new SavedQuery(this);
         }
     }
@@ -92,4 +111,12 @@ public class SavedQuery {
     public boolean returnCreatedIDs(){
         return returnCreatedIDs;
     }
+
+    public long getTimeout(){
+        return timeout;
+    }
+
+    public ResultLimits getResultLimits(){
+        return resultLimits;
+    }
 }
@@ -0,0 +1,8 @@
+package com.drallinger.sqlite;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface ScalarFunction {
+    Object apply(Object[] arguments) throws SQLException;
+}
@@ -0,0 +1,8 @@
+package com.drallinger.sqlite;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SnapshotCallback<T> {
+    T execute(ReadSnapshot snapshot) throws SQLException;
+}
@@ -0,0 +1,26 @@
+package com.drallinger.sqlite;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.drallinger.sqlite.StatementPrepare")
+@Label("SQLite Statement Prepare")
+@Category("SQLite")
+class StatementPrepareEvent extends Event {
+    @Label("Query Name")
+    String queryName;
+
+    @Label("SQL")
+    String sql;
+
+    void finish(String queryName, String sql){
+        end();
+        if(shouldCommit()){
+            this.queryName = queryName;
+            this.sql = sql;
+            commit();
+        }
+    }
+}
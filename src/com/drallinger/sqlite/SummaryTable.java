@@ -0,0 +1,305 @@
+package com.drallinger.sqlite;
+
+import com.drallinger.sqlite.querybuilders.ColumnBuilder;
+import com.drallinger.sqlite.querybuilders.CreateIndexBuilder;
+import com.drallinger.sqlite.querybuilders.CreateTableBuilder;
+import com.drallinger.sqlite.querybuilders.DropTableBuilder;
+import com.drallinger.sqlite.querybuilders.SelectBuilder;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+public class SummaryTable {
+    private enum Function{
+        SUM,
+        MIN,
+        MAX
+    }
+    private final SQLiteDatabase database;
+    private final String tableName;
+    private final String sourceTable;
+    private final String countColumn;
+    private final ArrayList<String[]> groupKeys;
+    private final ArrayList<Aggregate> aggregates;
+
+    private SummaryTable(SQLiteDatabase database, Builder builder){
+        this.database = database;
+        tableName = builder.tableName;
+        sourceTable = builder.sourceTable;
+        countColumn = builder.countColumn;
+        groupKeys = new ArrayList<>(builder.groupKeys);
+        aggregates = new ArrayList<>(builder.aggregates);
+    }
+
+    public static SummaryTable.Builder createBuilder(){
+        return new Builder();
+    }
+
+    public static class Builder{
+        private final ArrayList<String[]> groupKeys;
+        private final ArrayList<Aggregate> aggregates;
+        private String tableName;
+        private String sourceTable;
+        private String countColumn = "row_count";
+
+        private Builder(){
+            groupKeys = new ArrayList<>();
+            aggregates = new ArrayList<>();
+        }
+
+        public Builder setTableName(String tableName){
+            this.tableName = tableName;
+            return this;
+        }
+
+        public Builder setSourceTable(String sourceTable){
+            this.sourceTable = sourceTable;
+            return this;
+        }
+
+        public Builder setCountColumn(String countColumn){
+            this.countColumn = countColumn;
+            return this;
+        }
+
+        public Builder addGroupKey(String column, String dataType){
+            groupKeys.add(new String[]{column, dataType});
+            return this;
+        }
+
+        public Builder addSum(String name, String column, String dataType){
+            aggregates.add(new Aggregate(Function.SUM, name, column, dataType));
+            return this;
+        }
+
+        public Builder addMin(String name, String column, String dataType){
+            aggregates.add(new Aggregate(Function.MIN, name, column, dataType));
+            return this;
+        }
+
+        public Builder addMax(String name, String column, String dataType){
+            aggregates.add(new Aggregate(Function.MAX, name, column, dataType));
+            return this;
+        }
+
+        SummaryTable build(SQLiteDatabase database) throws IllegalArgumentException{
+            if(tableName == null || tableName.isEmpty()){
+                throw new IllegalArgumentException("SummaryTable missing table name");
+            }
+            if(sourceTable == null || sourceTable.isEmpty()){
+                throw new IllegalArgumentException("SummaryTable missing source table");
+            }
+            if(countColumn == null || countColumn.isEmpty()){
+                throw new IllegalArgumentException("SummaryTable missing count column");
+            }
+            if(groupKeys.isEmpty()){
+                throw new IllegalArgumentException("SummaryTable needs at least one group key");
+            }
+            return new SummaryTable(database, this);
+        }
+    }
+
+    private static class Aggregate{
+        private final Function function;
+        private final String name;
+        private final String column;
+        private final String dataType;
+
+        private Aggregate(Function function, String name, String column, String dataType){
+            this.function = function;
+            this.name = name;
+            this.column = column;
+            this.dataType = dataType;
+        }
+    }
+
+    void install() throws SQLException{
+        boolean exists;
+        ResultSet resultSet = database.executeQuery("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + tableName.replace("'", "''") + "';");
+        try{
+            exists = resultSet.next();
+        }finally{
+            Statement statement = resultSet.getStatement();
+            resultSet.close();
+            if(statement != null){
+                statement.close();
+            }
+        }
+        database.inTransaction(Transaction.Mode.IMMEDIATE, transaction -> {
+            CreateTableBuilder table = CreateTableBuilder.createBuilder()
+                .setTableName(tableName)
+                .setPrimaryKey(keyColumns())
+                .ifNotExists();
+            for(String[] groupKey : groupKeys){
+                table.addColumn(ColumnBuilder.createBuilder().setName(groupKey[0]).setDataType(groupKey[1]).isNotNull());
+            }
+            table.addColumn(ColumnBuilder.createBuilder().setName(countColumn).setDataType(ColumnBuilder.DATA_TYPE_INTEGER).setDefaultValue(0).isNotNull());
+            for(Aggregate aggregate : aggregates){
+                ColumnBuilder column = ColumnBuilder.createBuilder().setName(aggregate.name).setDataType(aggregate.dataType);
+                if(aggregate.function == Function.SUM){
+                    column.setDefaultValue(0).isNotNull();
+                }
+                table.addColumn(column);
+            }
+            transaction.executeUpdate(table);
+            transaction.executeUpdate(CreateIndexBuilder.createBuilder()
+                .setIndexName(tableName + "_source_keys")
+                .setTableName(sourceTable)
+                .setColumns(keyColumns())
+                .ifNotExists());
+            dropTriggers(transaction);
+            transaction.executeUpdate("CREATE TRIGGER " + tableName + "_summary_insert AFTER INSERT ON " + sourceTable + " BEGIN " + insertBody() + " END;");
+            transaction.executeUpdate("CREATE TRIGGER " + tableName + "_summary_delete AFTER DELETE ON " + sourceTable + " BEGIN " + deleteBody() + " END;");
+            transaction.executeUpdate("CREATE TRIGGER " + tableName + "_summary_update AFTER UPDATE OF " + String.join(",", watchedColumns()) + " ON " + sourceTable + " BEGIN " + deleteBody() + " " + insertBody() + " END;");
+            if(!exists){
+                rebuild(transaction);
+            }
+            return null;
+        });
+    }
+
+    public String getTableName(){
+        return tableName;
+    }
+
+    public SelectBuilder select(String... columns){
+        return SelectBuilder.createBuilder().setColumns(columns).setTableName(tableName);
+    }
+
+    public void rebuild(){
+        database.inTransaction(Transaction.Mode.IMMEDIATE, transaction -> {
+            rebuild(transaction);
+            return null;
+        });
+    }
+
+    public void drop(){
+        database.inTransaction(Transaction.Mode.IMMEDIATE, transaction -> {
+            dropTriggers(transaction);
+            transaction.executeUpdate("DROP INDEX IF EXISTS " + tableName + "_source_keys;");
+            transaction.executeUpdate(DropTableBuilder.createBuilder().setTableName(tableName).ifExists());
+            return null;
+        });
+    }
+
+    private void rebuild(Transaction transaction) throws SQLException{
+        String[] keys = keyColumns();
+        ArrayList<String> values = new ArrayList<>();
+        values.add("count(*)");
+        for(Aggregate aggregate : aggregates){
+            values.add(switch(aggregate.function){
+                case SUM -> "coalesce(sum(" + aggregate.column + "), 0)";
+                case MIN -> "min(" + aggregate.column + ")";
+                case MAX -> "max(" + aggregate.column + ")";
+            });
+        }
+        transaction.executeUpdate("DELETE FROM " + tableName + ";");
+        transaction.executeUpdate("INSERT INTO " + tableName + " (" + String.join(",", summaryColumns()) + ") SELECT "
+            + String.join(",", keys) + "," + String.join(",", values) + " FROM " + sourceTable
+            + " WHERE " + keysNotNull("") + " GROUP BY " + String.join(",", keys) + ";");
+    }
+
+    private void dropTriggers(Transaction transaction) throws SQLException{
+        transaction.executeUpdate("DROP TRIGGER IF EXISTS " + tableName + "_summary_insert;");
+        transaction.executeUpdate("DROP TRIGGER IF EXISTS " + tableName + "_summary_delete;");
+        transaction.executeUpdate("DROP TRIGGER IF EXISTS " + tableName + "_summary_update;");
+    }
+
+    private String insertBody(){
+        ArrayList<String> values = new ArrayList<>();
+        ArrayList<String> updates = new ArrayList<>();
+        for(String key : keyColumns()){
+            values.add("NEW." + key);
+        }
+        values.add("1");
+        updates.add(countColumn + " = " + countColumn + " + 1");
+        for(Aggregate aggregate : aggregates){
+            String name = aggregate.name;
+            switch(aggregate.function){
+                case SUM -> {
+                    values.add("coalesce(NEW." + aggregate.column + ", 0)");
+                    updates.add(name + " = " + name + " + excluded." + name);
+                }
+                case MIN -> {
+                    values.add("NEW." + aggregate.column);
+                    updates.add(name + " = coalesce(min(" + name + ", excluded." + name + "), " + name + ", excluded." + name + ")");
+                }
+                case MAX -> {
+                    values.add("NEW." + aggregate.column);
+                    updates.add(name + " = coalesce(max(" + name + ", excluded." + name + "), " + name + ", excluded." + name + ")");
+                }
+            }
+        }
+        return "INSERT INTO " + tableName + " (" + String.join(",", summaryColumns()) + ") SELECT " + String.join(",", values)
+            + " WHERE " + keysNotNull("NEW.") + " ON CONFLICT (" + String.join(",", keyColumns()) + ") DO UPDATE SET "
+            + String.join(",", updates) + ";";
+    }
+
+    private String deleteBody(){
+        ArrayList<String> updates = new ArrayList<>();
+        updates.add(countColumn + " = " + countColumn + " - 1");
+        for(Aggregate aggregate : aggregates){
+            String name = aggregate.name;
+            String column = aggregate.column;
+            switch(aggregate.function){
+                case SUM -> updates.add(name + " = " + name + " - coalesce(OLD." + column + ", 0)");
+                case MIN -> updates.add(name + " = CASE WHEN OLD." + column + " <= " + name + " THEN (SELECT min(" + column + ") FROM "
+                    + sourceTable + " WHERE " + keysMatch(sourceTable + ".") + ") ELSE " + name + " END");
+                case MAX -> updates.add(name + " = CASE WHEN OLD." + column + " >= " + name + " THEN (SELECT max(" + column + ") FROM "
+                    + sourceTable + " WHERE " + keysMatch(sourceTable + ".") + ") ELSE " + name + " END");
+            }
+        }
+        return "UPDATE " + tableName + " SET " + String.join(",", updates) + " WHERE " + keysMatch(tableName + ".") + ";"
+            + " DELETE FROM " + tableName + " WHERE " + keysMatch(tableName + ".") + " AND " + countColumn + " <= 0;";
+    }
+
+    private String[] keyColumns(){
+        String[] keys = new String[groupKeys.size()];
+        for(int i = 0; i < keys.length; i++){
+            keys[i] = groupKeys.get(i)[0];
+        }
+        return keys;
+    }
+
+    private ArrayList<String> summaryColumns(){
+        ArrayList<String> columns = new ArrayList<>();
+        for(String key : keyColumns()){
+            columns.add(key);
+        }
+        columns.add(countColumn);
+        for(Aggregate aggregate : aggregates){
+            columns.add(aggregate.name);
+        }
+        return columns;
+    }
+
+    private LinkedHashSet<String> watchedColumns(){
+        LinkedHashSet<String> columns = new LinkedHashSet<>();
+        for(String key : keyColumns()){
+            columns.add(key);
+        }
+        for(Aggregate aggregate : aggregates){
+            columns.add(aggregate.column);
+        }
+        return columns;
+    }
+
+    private String keysMatch(String prefix){
+        ArrayList<String> conditions = new ArrayList<>();
+        for(String key : keyColumns()){
+            conditions.add(prefix + key + " = OLD." + key);
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    private String keysNotNull(String prefix){
+        ArrayList<String> conditions = new ArrayList<>();
+        for(String key : keyColumns()){
+            conditions.add(prefix + key + " IS NOT NULL");
+        }
+        return String.join(" AND ", conditions);
+    }
+}
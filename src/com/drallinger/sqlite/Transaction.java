@@ -0,0 +1,81 @@
+package com.drallinger.sqlite;
+
+import com.drallinger.sqlite.querybuilders.QueryBuilder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class Transaction {
+    public enum Mode{
+        DEFERRED,
+        IMMEDIATE,
+        EXCLUSIVE
+    }
+    private final SQLiteDatabase database;
+    private final Connection connection;
+    private int savepointCount;
+
+    Transaction(SQLiteDatabase database, Connection connection){
+        this.database = database;
+        this.connection = connection;
+        savepointCount = 0;
+    }
+
+    public ResultSet executeQuery(String query) throws SQLException{
+        database.rejectWriteStatement(query);
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(query);
+        event.finishRaw(query, false, -1);
+        return resultSet;
+    }
+
+    public ResultSet executeQuery(QueryBuilder builder) throws SQLException{
+        return executeQuery(builder.build());
+    }
+
+    public int executeUpdate(String query) throws SQLException{
+        database.rejectWriteStatement(query);
+        QueryExecutionEvent event = new QueryExecutionEvent();
+        event.begin();
+        try(Statement statement = connection.createStatement()){
+            int rows = statement.executeUpdate(query);
+            database.trackSavepoint(query);
+            event.finishRaw(query, true, rows);
+            return rows;
+        }
+    }
+
+    public int executeUpdate(QueryBuilder builder) throws SQLException{
+        return executeUpdate(builder.build());
+    }
+
+    public QueryResult<?> executeSavedQuery(String queryName, QueryValue<?>... values) throws SQLException{
+        return database.runSavedQuery(queryName, 0, null, values);
+    }
+
+    public void executeSavedUpdate(String queryName, QueryValue<?>... values) throws SQLException{
+        database.runSavedUpdate(queryName, 0, values);
+    }
+
+    public int[] executeSavedUpdateBatch(String queryName, Iterable<QueryValue<?>[]> rows) throws SQLException{
+        return database.runSavedUpdateBatch(queryName, rows);
+    }
+
+    public <T> T savepoint(TransactionCallback<T> callback) throws SQLException{
+        String name = "savepoint_" + (++savepointCount);
+        executeUpdate("SAVEPOINT " + name + ";");
+        try{
+            T result = callback.execute(this);
+            executeUpdate("RELEASE " + name + ";");
+            return result;
+        }catch(SQLException|RuntimeException e){
+            executeUpdate("ROLLBACK TO " + name + ";");
+            executeUpdate("RELEASE " + name + ";");
+            throw e;
+        }
+    }
+}
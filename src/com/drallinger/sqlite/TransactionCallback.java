@@ -0,0 +1,8 @@
+package com.drallinger.sqlite;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface TransactionCallback<T> {
+    T execute(Transaction transaction) throws SQLException;
+}
@@ -0,0 +1,30 @@
+package com.drallinger.sqlite;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.drallinger.sqlite.Transaction")
+@Label("SQLite Transaction")
+@Category("SQLite")
+class TransactionEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Mode")
+    String mode;
+
+    @Label("Attempts")
+    int attempts;
+
+    void finish(String operation, String mode, int attempts){
+        end();
+        if(shouldCommit()){
+            this.operation = operation;
+            this.mode = mode;
+            this.attempts = attempts;
+            commit();
+        }
+    }
+}
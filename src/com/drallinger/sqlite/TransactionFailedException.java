@@ -0,0 +1,11 @@
+package com.drallinger.sqlite;
+
+import java.sql.SQLException;
+
+public class TransactionFailedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public TransactionFailedException(String message, SQLException cause){
+        super(message, cause);
+    }
+}
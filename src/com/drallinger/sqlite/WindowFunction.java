@@ -0,0 +1,8 @@
+package com.drallinger.sqlite;
+
+import java.sql.SQLException;
+
+public interface WindowFunction<A> extends AggregateFunction<A> {
+    A inverse(A accumulator, Object[] arguments) throws SQLException;
+    Object value(A accumulator) throws SQLException;
+}
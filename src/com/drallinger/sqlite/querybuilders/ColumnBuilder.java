@@ -11,6 +11,9 @@ public class ColumnBuilder extends QueryBuilder {
     private String defaultValue;
     private boolean notNull;
     private boolean primaryKey;
+    private String generatedExpression;
+    private boolean storedGenerated;
+    private boolean compressedBlob;
 
     private ColumnBuilder(){}
 
@@ -20,46 +23,55 @@ public class ColumnBuilder extends QueryBuilder {
 
     public ColumnBuilder setName(String name){
         this.name = name;
+        invalidate();
         return this;
     }
 
     public ColumnBuilder setDataType(String dataType){
         this.dataType = dataType;
+        invalidate();
         return this;
     }
 
     public ColumnBuilder setDefaultValue(short defaultValue){
         this.defaultValue = String.valueOf(defaultValue);
+        invalidate();
         return this;
     }
 
     public ColumnBuilder setDefaultValue(int defaultValue){
         this.defaultValue = String.valueOf(defaultValue);
+        invalidate();
         return this;
     }
 
     public ColumnBuilder setDefaultValue(long defaultValue){
         this.defaultValue = String.valueOf(defaultValue);
+        invalidate();
         return this;
     }
 
     public ColumnBuilder setDefaultValue(float defaultValue){
         this.defaultValue = String.valueOf(defaultValue);
+        invalidate();
         return this;
     }
 
     public ColumnBuilder setDefaultValue(double defaultValue){
         this.defaultValue = String.valueOf(defaultValue);
+        invalidate();
         return this;
     }
 
     public ColumnBuilder setDefaultValue(String defaultValue){
         this.defaultValue = defaultValue;
+        invalidate();
         return this;
     }
 
     public ColumnBuilder isNotNull(boolean notNull){
         this.notNull = notNull;
+        invalidate();
         return this;
     }
 
@@ -69,6 +81,7 @@ public class ColumnBuilder extends QueryBuilder {
 
     public ColumnBuilder isPrimaryKey(boolean primaryKey){
         this.primaryKey = primaryKey;
+        invalidate();
         return this;
     }
 
@@ -76,15 +89,60 @@ public class ColumnBuilder extends QueryBuilder {
         return isPrimaryKey(true);
     }
 
+    public ColumnBuilder isCompressedBlob(boolean compressedBlob){
+        this.compressedBlob = compressedBlob;
+        invalidate();
+        return this;
+    }
+
+    public ColumnBuilder isCompressedBlob(){
+        return isCompressedBlob(true);
+    }
+
+    public ColumnBuilder setGeneratedAs(String expression, boolean stored){
+        this.generatedExpression = expression;
+        this.storedGenerated = stored;
+        invalidate();
+        return this;
+    }
+
+    public ColumnBuilder setGeneratedAs(String expression){
+        return setGeneratedAs(expression, false);
+    }
+
+    public ColumnBuilder setJsonExtract(String column, String path, boolean stored){
+        return setGeneratedAs(JsonPath.extract(column, path), stored);
+    }
+
+    public ColumnBuilder setJsonExtract(String column, String path){
+        return setJsonExtract(column, path, false);
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    boolean isGenerated(){
+        return generatedExpression != null && !generatedExpression.isEmpty();
+    }
+
     @Override
-    public String build() throws InvalidSQLQueryException{
+    protected String render() throws InvalidSQLQueryException{
         if(name == null || name.isEmpty()){
             throw new InvalidSQLQueryException("Missing column name");
         }
-        if(dataType == null || dataType.isEmpty()){
+        if(!compressedBlob && (dataType == null || dataType.isEmpty())){
             throw new InvalidSQLQueryException("Missing data type");
         }
-        StringBuilder column = new StringBuilder(name);
+        String dataType = compressedBlob ? DATA_TYPE_BLOB : this.dataType;
+        if(compressedBlob && defaultValue != null && !defaultValue.isEmpty()){
+            throw new InvalidSQLQueryException("Compressed column " + name + " cannot have a default value");
+        }
+        boolean generated = generatedExpression != null && !generatedExpression.isEmpty();
+        if(generated && (primaryKey || (defaultValue != null && !defaultValue.isEmpty()))){
+            throw new InvalidSQLQueryException("Generated column " + name + " cannot have a default value or be a primary key");
+        }
+        StringBuilder column = new StringBuilder(64 + name.length() + dataType.length() + length(defaultValue) + length(generatedExpression)).append(name);
         column.append(" ").append(dataType).append(" ");
         if(defaultValue != null && !defaultValue.isEmpty()){
             column.append("DEFAULT ");
@@ -100,17 +158,25 @@ public class ColumnBuilder extends QueryBuilder {
         if(primaryKey){
             column.append("PRIMARY KEY ");
         }
+        if(generated){
+            column.append("GENERATED ALWAYS AS (").append(generatedExpression).append(") ");
+            column.append(storedGenerated ? "STORED " : "VIRTUAL ");
+        }
         column.setCharAt(column.length() - 1, ',');
         return column.toString();
     }
 
     @Override
     public ColumnBuilder clone(){
-        return ColumnBuilder.createBuilder()
+        ColumnBuilder builder = ColumnBuilder.createBuilder()
             .setName(name)
             .setDataType(dataType)
             .setDefaultValue(defaultValue)
             .isNotNull(notNull)
-            .isPrimaryKey(primaryKey);
+            .isPrimaryKey(primaryKey)
+            .setGeneratedAs(generatedExpression, storedGenerated)
+            .isCompressedBlob(compressedBlob);
+        builder.copyCache(this);
+        return builder;
     }
 }
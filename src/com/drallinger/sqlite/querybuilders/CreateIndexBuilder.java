@@ -0,0 +1,112 @@
+package com.drallinger.sqlite.querybuilders;
+
+public class CreateIndexBuilder extends QueryBuilder {
+    private String[] columns;
+    private String indexName;
+    private String tableName;
+    private String where;
+    private boolean unique;
+    private boolean ifNotExists;
+
+    private CreateIndexBuilder(){}
+
+    public static CreateIndexBuilder createBuilder(){
+        return new CreateIndexBuilder();
+    }
+
+    public CreateIndexBuilder setIndexName(String indexName){
+        this.indexName = indexName;
+        invalidate();
+        return this;
+    }
+
+    public CreateIndexBuilder setIndexName(String schema, String indexName){
+        return setIndexName(qualify(schema, indexName));
+    }
+
+    public CreateIndexBuilder setTableName(String tableName){
+        this.tableName = tableName;
+        invalidate();
+        return this;
+    }
+
+    public CreateIndexBuilder setColumns(String... columns){
+        this.columns = columns == null ? null : columns.clone();
+        invalidate();
+        return this;
+    }
+
+    public CreateIndexBuilder setWhere(String where){
+        this.where = where;
+        invalidate();
+        return this;
+    }
+
+    public CreateIndexBuilder isUnique(boolean unique){
+        this.unique = unique;
+        invalidate();
+        return this;
+    }
+
+    public CreateIndexBuilder isUnique(){
+        return isUnique(true);
+    }
+
+    public CreateIndexBuilder ifNotExists(boolean ifNotExists){
+        this.ifNotExists = ifNotExists;
+        invalidate();
+        return this;
+    }
+
+    public CreateIndexBuilder ifNotExists(){
+        return ifNotExists(true);
+    }
+
+    public String getIndexName(){
+        return indexName;
+    }
+
+    @Override
+    protected String render() throws InvalidSQLQueryException{
+        if(indexName == null || indexName.isEmpty()){
+            throw new InvalidSQLQueryException("Missing index name");
+        }
+        if(tableName == null || tableName.isEmpty()){
+            throw new InvalidSQLQueryException("Missing table name");
+        }
+        if(columns == null || columns.length <= 0){
+            throw new InvalidSQLQueryException("No columns given");
+        }
+        int capacity = 48 + indexName.length() + tableName.length() + length(where);
+        for(String column : columns){
+            capacity += column.length() + 1;
+        }
+        StringBuilder query = new StringBuilder(capacity).append("CREATE ");
+        if(unique){
+            query.append("UNIQUE ");
+        }
+        query.append("INDEX ");
+        if(ifNotExists){
+            query.append("IF NOT EXISTS ");
+        }
+        query.append(indexName).append(" ON ").append(tableName).append(" (").append(String.join(",", columns)).append(") ");
+        if(where != null && !where.isEmpty()){
+            query.append("WHERE ").append(where).append(" ");
+        }
+        query.setCharAt(query.length() - 1, ';');
+        return query.toString();
+    }
+
+    @Override
+    public CreateIndexBuilder clone(){
+        CreateIndexBuilder builder = CreateIndexBuilder.createBuilder()
+            .setIndexName(indexName)
+            .setTableName(tableName)
+            .setColumns(columns)
+            .setWhere(where)
+            .isUnique(unique)
+            .ifNotExists(ifNotExists);
+        builder.copyCache(this);
+        return builder;
+    }
+}
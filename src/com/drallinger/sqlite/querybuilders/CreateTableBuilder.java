@@ -5,6 +5,7 @@ import java.util.ArrayList;
 public class CreateTableBuilder extends QueryBuilder {
     private final ArrayList<ColumnBuilder> columns;
     private String tableName;
+    private String[] primaryKey;
     private boolean ifNotExists;
 
     private CreateTableBuilder(){
@@ -17,11 +18,17 @@ public class CreateTableBuilder extends QueryBuilder {
 
     public CreateTableBuilder setTableName(String tableName){
         this.tableName = tableName;
+        invalidate();
         return this;
     }
 
+    public CreateTableBuilder setTableName(String schema, String tableName){
+        return setTableName(qualify(schema, tableName));
+    }
+
     public CreateTableBuilder ifNotExists(boolean ifNotExists){
         this.ifNotExists = ifNotExists;
+        invalidate();
         return this;
     }
 
@@ -29,42 +36,75 @@ public class CreateTableBuilder extends QueryBuilder {
         return ifNotExists(true);
     }
 
+    public CreateTableBuilder setPrimaryKey(String... primaryKey){
+        this.primaryKey = primaryKey == null ? null : primaryKey.clone();
+        invalidate();
+        return this;
+    }
+
     public CreateTableBuilder addColumn(ColumnBuilder columnBuilder){
         columns.add(columnBuilder);
+        invalidate();
         return this;
     }
 
     @Override
-    public String build() throws InvalidSQLQueryException{
+    protected String render() throws InvalidSQLQueryException{
         if(tableName == null || tableName.isEmpty()){
             throw new InvalidSQLQueryException("Missing table name");
         }
         if(columns.isEmpty()){
             throw new InvalidSQLQueryException("No columns given");
         }
-        StringBuilder query = new StringBuilder("CREATE TABLE ");
+        String[] columnDefinitions = new String[columns.size()];
+        int capacity = 40 + tableName.length();
+        for(int i = 0; i < columnDefinitions.length; i++){
+            columnDefinitions[i] = columns.get(i).build();
+            capacity += columnDefinitions[i].length();
+        }
+        boolean hasPrimaryKey = primaryKey != null && primaryKey.length > 0;
+        if(hasPrimaryKey){
+            for(String column : primaryKey){
+                capacity += column.length() + 1;
+            }
+        }
+        StringBuilder query = new StringBuilder(capacity).append("CREATE TABLE ");
         if(ifNotExists){
             query.append("IF NOT EXISTS ");
         }
         query.append(tableName).append(" (");
-        for(ColumnBuilder columnBuilder : columns){
-            query.append(columnBuilder.build());
+        for(String columnDefinition : columnDefinitions){
+            query.append(columnDefinition);
+        }
+        if(hasPrimaryKey){
+            query.append("PRIMARY KEY (").append(String.join(",", primaryKey)).append("),");
         }
         query.deleteCharAt(query.length() - 1);
         query.append(");");
         return query.toString();
     }
 
+    @Override
+    protected int getDependencyVersion(){
+        int dependencyVersion = 0;
+        for(ColumnBuilder columnBuilder : columns){
+            dependencyVersion += columnBuilder.getVersion();
+        }
+        return dependencyVersion;
+    }
+
     @Override
     public CreateTableBuilder clone(){
         CreateTableBuilder builder = CreateTableBuilder.createBuilder()
             .setTableName(tableName)
+            .setPrimaryKey(primaryKey)
             .ifNotExists(ifNotExists);
         if(!columns.isEmpty()){
             for(ColumnBuilder columnBuilder : columns){
                 builder.addColumn(columnBuilder);
             }
         }
+        builder.copyCache(this);
         return builder;
     }
 }
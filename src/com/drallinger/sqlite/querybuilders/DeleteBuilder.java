@@ -13,25 +13,40 @@ public class DeleteBuilder extends QueryBuilder {
 
     public DeleteBuilder setTableName(String tableName){
         this.tableName = tableName;
+        invalidate();
         return this;
     }
 
+    public DeleteBuilder setTableName(String schema, String tableName){
+        return setTableName(qualify(schema, tableName));
+    }
+
     public DeleteBuilder setWhere(String where){
         this.where = where;
+        invalidate();
         return this;
     }
 
     public DeleteBuilder setLimit(int limit){
         this.limit = limit;
+        invalidate();
         return this;
     }
 
+    public String getTableName(){
+        return tableName;
+    }
+
+    public String getWhere(){
+        return where;
+    }
+
     @Override
-    public String build() throws InvalidSQLQueryException{
+    protected String render() throws InvalidSQLQueryException{
         if(tableName == null || tableName.isEmpty()){
             throw new InvalidSQLQueryException("Missing table name");
         }
-        StringBuilder query = new StringBuilder("DELETE FROM ");
+        StringBuilder query = new StringBuilder(40 + tableName.length() + length(where)).append("DELETE FROM ");
         query.append(tableName).append(" ");
         if(where != null && !where.isEmpty()){
             query.append("WHERE ").append(where).append(" ");
@@ -45,9 +60,11 @@ public class DeleteBuilder extends QueryBuilder {
 
     @Override
     public DeleteBuilder clone(){
-        return DeleteBuilder.createBuilder()
+        DeleteBuilder builder = DeleteBuilder.createBuilder()
             .setTableName(tableName)
             .setWhere(where)
             .setLimit(limit);
+        builder.copyCache(this);
+        return builder;
     }
 }
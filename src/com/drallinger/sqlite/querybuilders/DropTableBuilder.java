@@ -12,11 +12,17 @@ public class DropTableBuilder extends QueryBuilder {
 
     public DropTableBuilder setTableName(String tableName){
         this.tableName = tableName;
+        invalidate();
         return this;
     }
 
+    public DropTableBuilder setTableName(String schema, String tableName){
+        return setTableName(qualify(schema, tableName));
+    }
+
     public DropTableBuilder ifExists(boolean ifExists){
         this.ifExists = ifExists;
+        invalidate();
         return this;
     }
 
@@ -25,11 +31,11 @@ public class DropTableBuilder extends QueryBuilder {
     }
 
     @Override
-    public String build() throws InvalidSQLQueryException{
+    protected String render() throws InvalidSQLQueryException{
         if(tableName == null || tableName.isEmpty()){
             throw new InvalidSQLQueryException("Missing table name");
         }
-        StringBuilder query = new StringBuilder("DROP TABLE ");
+        StringBuilder query = new StringBuilder(24 + tableName.length()).append("DROP TABLE ");
         if(ifExists){
             query.append("IF EXISTS ");
         }
@@ -39,8 +45,10 @@ public class DropTableBuilder extends QueryBuilder {
 
     @Override
     public DropTableBuilder clone(){
-        return DropTableBuilder.createBuilder()
+        DropTableBuilder builder = DropTableBuilder.createBuilder()
             .setTableName(tableName)
             .ifExists(ifExists);
+        builder.copyCache(this);
+        return builder;
     }
 }
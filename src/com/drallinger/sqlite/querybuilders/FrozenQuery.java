@@ -0,0 +1,29 @@
+package com.drallinger.sqlite.querybuilders;
+
+public final class FrozenQuery extends QueryBuilder {
+    private final String query;
+
+    FrozenQuery(String query){
+        this.query = query;
+    }
+
+    @Override
+    public String build(){
+        return query;
+    }
+
+    @Override
+    public FrozenQuery freeze(){
+        return this;
+    }
+
+    @Override
+    protected String render(){
+        return query;
+    }
+
+    @Override
+    public FrozenQuery clone(){
+        return this;
+    }
+}
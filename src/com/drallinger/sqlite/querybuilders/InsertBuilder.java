@@ -1,10 +1,13 @@
 package com.drallinger.sqlite.querybuilders;
 
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 public class InsertBuilder extends QueryBuilder {
     private final LinkedHashMap<String, String> valuesMap;
+    private String[] columns;
+    private SelectBuilder select;
     private String tableName;
 
     private InsertBuilder(){
@@ -17,31 +20,41 @@ public class InsertBuilder extends QueryBuilder {
 
     public InsertBuilder setTableName(String tableName){
         this.tableName = tableName;
+        invalidate();
         return this;
     }
 
+    public InsertBuilder setTableName(String schema, String tableName){
+        return setTableName(qualify(schema, tableName));
+    }
+
     public InsertBuilder addValue(String column, short value){
         valuesMap.put(column, String.valueOf(value));
+        invalidate();
         return this;
     }
 
     public InsertBuilder addValue(String column, int value){
         valuesMap.put(column, String.valueOf(value));
+        invalidate();
         return this;
     }
 
     public InsertBuilder addValue(String column, long value){
         valuesMap.put(column, String.valueOf(value));
+        invalidate();
         return this;
     }
 
     public InsertBuilder addValue(String column, float value){
         valuesMap.put(column, String.valueOf(value));
+        invalidate();
         return this;
     }
 
     public InsertBuilder addValue(String column, double value){
         valuesMap.put(column, String.valueOf(value));
+        invalidate();
         return this;
     }
 
@@ -51,6 +64,7 @@ public class InsertBuilder extends QueryBuilder {
         }else{
             valuesMap.put(column, value);
         }
+        invalidate();
         return this;
     }
 
@@ -60,32 +74,86 @@ public class InsertBuilder extends QueryBuilder {
 
     public InsertBuilder addPreparedValue(String column){
         valuesMap.put(column, "?");
+        invalidate();
+        return this;
+    }
+
+    public InsertBuilder setColumns(String... columns){
+        this.columns = columns == null ? null : columns.clone();
+        invalidate();
+        return this;
+    }
+
+    public InsertBuilder setSelect(SelectBuilder select){
+        this.select = select;
+        invalidate();
         return this;
     }
 
     @Override
-    public String build() throws InvalidSQLQueryException{
+    protected String render() throws InvalidSQLQueryException{
         if(tableName == null || tableName.isEmpty()){
             throw new InvalidSQLQueryException("Missing table name");
         }
+        if(select != null){
+            return buildInsertSelect();
+        }
         if(valuesMap.isEmpty()){
             throw new InvalidSQLQueryException("No values given");
         }
-        String columns = String.join(",", valuesMap.keySet());
-        String values = String.join(",", valuesMap.values());
-        return "INSERT INTO " + tableName + " (" + columns + ") VALUES (" + values + ");";
+        int capacity = 32 + tableName.length();
+        for(Map.Entry<String, String> value : valuesMap.entrySet()){
+            capacity += value.getKey().length() + value.getValue().length() + 2;
+        }
+        StringBuilder query = new StringBuilder(capacity).append("INSERT INTO ");
+        query.append(tableName).append(" (");
+        for(String column : valuesMap.keySet()){
+            query.append(column).append(",");
+        }
+        query.setCharAt(query.length() - 1, ')');
+        query.append(" VALUES (");
+        for(String value : valuesMap.values()){
+            query.append(value).append(",");
+        }
+        query.setCharAt(query.length() - 1, ')');
+        query.append(";");
+        return query.toString();
+    }
+
+    @Override
+    protected int getDependencyVersion(){
+        return select == null ? 0 : select.getVersion();
+    }
+
+    private String buildInsertSelect() throws InvalidSQLQueryException{
+        if(!valuesMap.isEmpty()){
+            throw new InvalidSQLQueryException("Cannot combine values with a select");
+        }
+        String selectQuery = select.build();
+        StringBuilder query = new StringBuilder(32 + tableName.length() + selectQuery.length()).append("INSERT INTO ");
+        query.append(tableName).append(" ");
+        if(columns != null && columns.length > 0){
+            query.append("(").append(String.join(",", columns)).append(") ");
+        }
+        query.append(selectQuery);
+        return query.toString();
     }
 
     @Override
     public InsertBuilder clone(){
         InsertBuilder builder = InsertBuilder.createBuilder()
-            .setTableName(tableName);
+            .setTableName(tableName)
+            .setColumns(columns)
+            .setSelect(select == null ? null : select.clone());
         if(!valuesMap.isEmpty()){
             Set<String> keys = valuesMap.keySet();
             for(String key : keys){
                 builder.addValue(key, valuesMap.get(key), false);
             }
         }
+        if(select == null){
+            builder.copyCache(this);
+        }
         return builder;
     }
 }
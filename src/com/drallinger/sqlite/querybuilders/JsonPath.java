@@ -0,0 +1,9 @@
+package com.drallinger.sqlite.querybuilders;
+
+public final class JsonPath {
+    private JsonPath(){}
+
+    public static String extract(String column, String path){
+        return "json_extract(" + column + ", '" + path.replace("'", "''") + "')";
+    }
+}
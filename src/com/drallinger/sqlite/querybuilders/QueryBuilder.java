@@ -1,6 +1,55 @@
 package com.drallinger.sqlite.querybuilders;
 
 public abstract class QueryBuilder {
-    public abstract String build() throws InvalidSQLQueryException;
+    private String cachedQuery;
+    private int cachedDependencyVersion;
+    private int version;
+
+    public String build() throws InvalidSQLQueryException{
+        int dependencyVersion = getDependencyVersion();
+        if(cachedQuery == null || cachedDependencyVersion != dependencyVersion){
+            cachedQuery = render();
+            cachedDependencyVersion = dependencyVersion;
+        }
+        return cachedQuery;
+    }
+
+    public FrozenQuery freeze() throws InvalidSQLQueryException{
+        return new FrozenQuery(build());
+    }
+
     public abstract QueryBuilder clone();
+
+    protected String render() throws InvalidSQLQueryException{
+        throw new InvalidSQLQueryException(getClass().getName() + " must override build() or render()");
+    }
+
+    protected final void invalidate(){
+        cachedQuery = null;
+        version++;
+    }
+
+    protected final int getVersion(){
+        return version;
+    }
+
+    protected int getDependencyVersion(){
+        return 0;
+    }
+
+    protected final void copyCache(QueryBuilder source){
+        cachedQuery = source.cachedQuery;
+        cachedDependencyVersion = source.cachedDependencyVersion;
+    }
+
+    protected static String qualify(String schema, String name){
+        if(schema == null || schema.isEmpty()){
+            return name;
+        }
+        return schema + "." + name;
+    }
+
+    protected static int length(String value){
+        return value == null ? 0 : value.length();
+    }
 }
@@ -26,46 +26,73 @@ public class SelectBuilder extends QueryBuilder {
         if(column != null && !column.isEmpty()){
             this.columns = new String[]{column};
         }
+        invalidate();
         return this;
     }
 
     public SelectBuilder setColumns(String... columns){
-        this.columns = columns;
+        this.columns = columns == null ? null : columns.clone();
+        invalidate();
         return this;
     }
 
     public SelectBuilder setTableName(String tableName){
         this.tableName = tableName;
+        invalidate();
         return this;
     }
 
+    public SelectBuilder setTableName(String schema, String tableName){
+        return setTableName(qualify(schema, tableName));
+    }
+
     public SelectBuilder addJoin(String joinType, String tableName, String column1, String column2){
         joins.add(joinType + " JOIN " + tableName + " ON " + column1 + " = " + column2);
+        invalidate();
         return this;
     }
 
     public SelectBuilder addJoin(String join){
         joins.add(join);
+        invalidate();
         return this;
     }
 
     public SelectBuilder setWhere(String where){
         this.where = where;
+        invalidate();
+        return this;
+    }
+
+    public SelectBuilder addJsonWhere(String generatedColumn, String condition){
+        String predicate = generatedColumn + " " + condition;
+        this.where = where == null || where.isEmpty() ? predicate : "(" + where + ") AND " + predicate;
+        invalidate();
         return this;
     }
 
+    public SelectBuilder addJsonWhere(ColumnBuilder generatedColumn, String condition) throws IllegalArgumentException{
+        if(!generatedColumn.isGenerated()){
+            throw new IllegalArgumentException("Column " + generatedColumn.getName() + " is not a generated column");
+        }
+        return addJsonWhere(generatedColumn.getName(), condition);
+    }
+
     public SelectBuilder setOrderBy(String orderBy){
         this.orderBy = orderBy;
+        invalidate();
         return this;
     }
 
     public SelectBuilder setLimit(int limit){
         this.limit = limit;
+        invalidate();
         return this;
     }
 
     public SelectBuilder isDistinct(boolean distinct){
         this.distinct = distinct;
+        invalidate();
         return this;
     }
 
@@ -73,19 +100,42 @@ public class SelectBuilder extends QueryBuilder {
         return isDistinct(true);
     }
 
+    public String getTableName(){
+        return tableName;
+    }
+
+    public String getWhere(){
+        return where;
+    }
+
+    public int getLimit(){
+        return limit;
+    }
+
     @Override
-    public String build() throws InvalidSQLQueryException{
+    protected String render() throws InvalidSQLQueryException{
         if(columns == null || columns.length <= 0){
             throw new InvalidSQLQueryException("No columns given");
         }
         if(tableName == null || tableName.isEmpty()){
             throw new InvalidSQLQueryException("Missing table name");
         }
-        StringBuilder query = new StringBuilder("SELECT ");
+        int capacity = 64 + tableName.length() + length(where) + length(orderBy);
+        for(String column : columns){
+            capacity += column.length() + 1;
+        }
+        for(String join : joins){
+            capacity += join.length() + 1;
+        }
+        StringBuilder query = new StringBuilder(capacity).append("SELECT ");
         if(distinct){
             query.append("DISTINCT ");
         }
-        query.append(String.join(",", columns)).append(" FROM ").append(tableName).append(" ");
+        for(String column : columns){
+            query.append(column).append(",");
+        }
+        query.setCharAt(query.length() - 1, ' ');
+        query.append("FROM ").append(tableName).append(" ");
         if(joins.size() > 0){
             for(String join : joins){
                 query.append(join).append(" ");
@@ -118,6 +168,7 @@ public class SelectBuilder extends QueryBuilder {
                 builder.addJoin(join);
             }
         }
+        builder.copyCache(this);
         return builder;
     }
 }
@@ -1,6 +1,7 @@
 package com.drallinger.sqlite.querybuilders;
 
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 public class UpdateBuilder extends QueryBuilder {
@@ -19,31 +20,41 @@ public class UpdateBuilder extends QueryBuilder {
 
     public UpdateBuilder setTableName(String tableName){
         this.tableName = tableName;
+        invalidate();
         return this;
     }
 
+    public UpdateBuilder setTableName(String schema, String tableName){
+        return setTableName(qualify(schema, tableName));
+    }
+
     public UpdateBuilder addValue(String column, short value){
         valuesMap.put(column, String.valueOf(value));
+        invalidate();
         return this;
     }
 
     public UpdateBuilder addValue(String column, int value){
         valuesMap.put(column, String.valueOf(value));
+        invalidate();
         return this;
     }
 
     public UpdateBuilder addValue(String column, long value){
         valuesMap.put(column, String.valueOf(value));
+        invalidate();
         return this;
     }
 
     public UpdateBuilder addValue(String column, float value){
         valuesMap.put(column, String.valueOf(value));
+        invalidate();
         return this;
     }
 
     public UpdateBuilder addValue(String column, double value){
         valuesMap.put(column, String.valueOf(value));
+        invalidate();
         return this;
     }
 
@@ -53,6 +64,7 @@ public class UpdateBuilder extends QueryBuilder {
         }else{
             valuesMap.put(column, value);
         }
+        invalidate();
         return this;
     }
 
@@ -62,33 +74,38 @@ public class UpdateBuilder extends QueryBuilder {
 
     public UpdateBuilder addPreparedValue(String column){
         valuesMap.put(column, "?");
+        invalidate();
         return this;
     }
 
     public UpdateBuilder setWhere(String where){
         this.where = where;
+        invalidate();
         return this;
     }
 
     public UpdateBuilder setLimit(int limit){
         this.limit = limit;
+        invalidate();
         return this;
     }
 
     @Override
-    public String build() throws InvalidSQLQueryException{
+    protected String render() throws InvalidSQLQueryException{
         if(tableName == null || tableName.isEmpty()){
             throw new InvalidSQLQueryException("Missing table name");
         }
         if(valuesMap.isEmpty()){
             throw new InvalidSQLQueryException("No values given");
         }
-        StringBuilder query = new StringBuilder("UPDATE ");
+        int capacity = 48 + tableName.length() + length(where);
+        for(Map.Entry<String, String> value : valuesMap.entrySet()){
+            capacity += value.getKey().length() + value.getValue().length() + 4;
+        }
+        StringBuilder query = new StringBuilder(capacity).append("UPDATE ");
         query.append(tableName).append(" SET ");
-        Set<String> columns = valuesMap.keySet();
-        for(String column : columns){
-            String value = valuesMap.get(column);
-            query.append(column).append(" = ").append(value).append(",");
+        for(Map.Entry<String, String> value : valuesMap.entrySet()){
+            query.append(value.getKey()).append(" = ").append(value.getValue()).append(",");
         }
         query.setCharAt(query.length() - 1, ' ');
         if(where != null && !where.isEmpty()){
@@ -113,6 +130,7 @@ public class UpdateBuilder extends QueryBuilder {
                 builder.addValue(key, valuesMap.get(key), false);
             }
         }
+        builder.copyCache(this);
         return builder;
     }
 }
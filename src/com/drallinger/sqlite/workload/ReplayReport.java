@@ -0,0 +1,98 @@
+package com.drallinger.sqlite.workload;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ReplayReport {
+    private final TreeMap<String, QueryStatistics> statistics;
+    private final long elapsedTime;
+    private final long errors;
+
+    ReplayReport(Map<String, long[]> latencies, long elapsedTime, long errors){
+        statistics = new TreeMap<>();
+        for(Map.Entry<String, long[]> entry : latencies.entrySet()){
+            statistics.put(entry.getKey(), new QueryStatistics(entry.getValue(), elapsedTime));
+        }
+        this.elapsedTime = elapsedTime;
+        this.errors = errors;
+    }
+
+    public static class QueryStatistics{
+        private final long count;
+        private final double throughput;
+        private final long p50;
+        private final long p95;
+        private final long p99;
+        private final long max;
+
+        private QueryStatistics(long[] latencies, long elapsedTime){
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            count = sorted.length;
+            throughput = elapsedTime > 0 ? count / (elapsedTime / 1_000_000_000.0) : 0;
+            p50 = percentile(sorted, 0.50);
+            p95 = percentile(sorted, 0.95);
+            p99 = percentile(sorted, 0.99);
+            max = sorted.length > 0 ? sorted[sorted.length - 1] : 0;
+        }
+
+        private static long percentile(long[] sorted, double percentile){
+            if(sorted.length == 0){
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        public long getCount(){
+            return count;
+        }
+
+        public double getThroughput(){
+            return throughput;
+        }
+
+        public long getP50(){
+            return p50;
+        }
+
+        public long getP95(){
+            return p95;
+        }
+
+        public long getP99(){
+            return p99;
+        }
+
+        public long getMax(){
+            return max;
+        }
+    }
+
+    public Map<String, QueryStatistics> getStatistics(){
+        return new TreeMap<>(statistics);
+    }
+
+    public long getElapsedTime(){
+        return elapsedTime;
+    }
+
+    public long getErrors(){
+        return errors;
+    }
+
+    @Override
+    public String toString(){
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("elapsed %.3fs, errors %d%n", elapsedTime / 1_000_000_000.0, errors));
+        report.append(String.format("%-32s %10s %12s %10s %10s %10s %10s%n", "query", "count", "ops/s", "p50 us", "p95 us", "p99 us", "max us"));
+        for(Map.Entry<String, QueryStatistics> entry : statistics.entrySet()){
+            QueryStatistics stats = entry.getValue();
+            report.append(String.format("%-32s %10d %12.1f %10d %10d %10d %10d%n",
+                entry.getKey(), stats.count, stats.throughput,
+                stats.p50 / 1000, stats.p95 / 1000, stats.p99 / 1000, stats.max / 1000));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,110 @@
+package com.drallinger.sqlite.workload;
+
+import com.drallinger.sqlite.QueryValue;
+
+import java.util.ArrayList;
+import java.util.Base64;
+
+public class WorkloadEntry {
+    private static final String FIELD_SEPARATOR = "\t";
+    private final long offset;
+    private final String queryName;
+    private final boolean update;
+    private final long duration;
+    private final QueryValue<?>[] values;
+
+    WorkloadEntry(long offset, String queryName, boolean update, long duration, QueryValue<?>[] values){
+        this.offset = offset;
+        this.queryName = queryName;
+        this.update = update;
+        this.duration = duration;
+        this.values = values;
+    }
+
+    static WorkloadEntry parse(String line){
+        String[] fields = line.split(FIELD_SEPARATOR, -1);
+        if(fields.length < 4){
+            throw new IllegalArgumentException("Malformed workload entry: " + line);
+        }
+        ArrayList<QueryValue<?>> values = new ArrayList<>();
+        for(int i = 4; i < fields.length; i++){
+            String field = fields[i];
+            String value = field.substring(2);
+            switch(field.charAt(0)){
+                case 'I' -> values.add(QueryValue.integerValue(Integer.parseInt(value)));
+                case 'R' -> values.add(QueryValue.realValue(Double.parseDouble(value)));
+                case 'T' -> values.add(QueryValue.textValue(unescape(value)));
+                case 'B' -> values.add(QueryValue.blobValue(Base64.getDecoder().decode(value)));
+                default -> throw new IllegalArgumentException("Unknown value type in workload entry: " + field);
+            }
+        }
+        return new WorkloadEntry(
+            Long.parseLong(fields[0]),
+            unescape(fields[1]),
+            fields[2].equals("U"),
+            Long.parseLong(fields[3]),
+            values.toArray(new QueryValue<?>[0])
+        );
+    }
+
+    String format(){
+        StringBuilder line = new StringBuilder();
+        line.append(offset).append(FIELD_SEPARATOR)
+            .append(escape(queryName)).append(FIELD_SEPARATOR)
+            .append(update ? "U" : "Q").append(FIELD_SEPARATOR)
+            .append(duration);
+        for(QueryValue<?> value : values){
+            line.append(FIELD_SEPARATOR);
+            switch(value.getType()){
+                case INTEGER -> line.append("I:").append(value.getValue());
+                case REAL -> line.append("R:").append(value.getValue());
+                case TEXT -> line.append("T:").append(escape((String) value.getValue()));
+                case BLOB -> line.append("B:").append(Base64.getEncoder().encodeToString((byte[]) value.getValue()));
+            }
+        }
+        return line.toString();
+    }
+
+    private static String escape(String value){
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value){
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c == '\\' && i + 1 < value.length()){
+                char next = value.charAt(++i);
+                unescaped.append(switch(next){
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            }else{
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    public long getOffset(){
+        return offset;
+    }
+
+    public String getQueryName(){
+        return queryName;
+    }
+
+    public boolean isUpdate(){
+        return update;
+    }
+
+    public long getDuration(){
+        return duration;
+    }
+
+    public QueryValue<?>[] getValues(){
+        return values.clone();
+    }
+}
@@ -0,0 +1,44 @@
+package com.drallinger.sqlite.workload;
+
+import com.drallinger.sqlite.QueryListener;
+import com.drallinger.sqlite.QueryValue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class WorkloadRecorder implements QueryListener, AutoCloseable {
+    private final BufferedWriter writer;
+    private final long startTime;
+    private boolean closed;
+
+    public WorkloadRecorder(Path path) throws IOException{
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        startTime = System.nanoTime();
+        closed = false;
+    }
+
+    @Override
+    public synchronized void onQuery(String queryName, boolean update, QueryValue<?>[] values, long queryStartTime, long duration){
+        if(closed){
+            return;
+        }
+        WorkloadEntry entry = new WorkloadEntry(queryStartTime - startTime, queryName, update, duration, values.clone());
+        try{
+            writer.write(entry.format());
+            writer.newLine();
+        }catch(IOException e){
+            System.err.println("Failed to record workload entry: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException{
+        if(!closed){
+            closed = true;
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.drallinger.sqlite.workload;
+
+import com.drallinger.sqlite.SQLiteDatabase;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class WorkloadReplayer {
+    private final Path workloadFile;
+    private final Supplier<SQLiteDatabase> databaseFactory;
+    private final int concurrency;
+    private final double rate;
+
+    private WorkloadReplayer(Builder builder){
+        workloadFile = builder.workloadFile;
+        databaseFactory = builder.databaseFactory;
+        concurrency = builder.concurrency;
+        rate = builder.rate;
+    }
+
+    public static WorkloadReplayer.Builder createBuilder(){
+        return new Builder();
+    }
+
+    public static class Builder{
+        private Path workloadFile;
+        private Supplier<SQLiteDatabase> databaseFactory;
+        private int concurrency = 1;
+        private double rate = 1.0;
+
+        private Builder(){}
+
+        public Builder setWorkloadFile(Path workloadFile){
+            this.workloadFile = workloadFile;
+            return this;
+        }
+
+        public Builder setDatabaseFactory(Supplier<SQLiteDatabase> databaseFactory){
+            this.databaseFactory = databaseFactory;
+            return this;
+        }
+
+        public Builder setConcurrency(int concurrency){
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder setRate(double rate){
+            this.rate = rate;
+            return this;
+        }
+
+        public WorkloadReplayer build() throws IllegalArgumentException{
+            if(workloadFile == null){
+                throw new IllegalArgumentException("WorkloadReplayer missing workload file");
+            }
+            if(databaseFactory == null){
+                throw new IllegalArgumentException("WorkloadReplayer missing database factory");
+            }
+            if(concurrency <= 0){
+                throw new IllegalArgumentException("WorkloadReplayer concurrency must be positive");
+            }
+            if(rate < 0){
+                throw new IllegalArgumentException("WorkloadReplayer rate cannot be negative");
+            }
+            return new WorkloadReplayer(this);
+        }
+    }
+
+    public ReplayReport replay() throws IOException, InterruptedException{
+        ArrayList<WorkloadEntry> entries = loadEntries();
+        AtomicInteger nextEntry = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        ArrayList<HashMap<String, ArrayList<Long>>> workerLatencies = new ArrayList<>();
+        ArrayList<Thread> workers = new ArrayList<>();
+        long startTime = System.nanoTime();
+        for(int i = 0; i < concurrency; i++){
+            HashMap<String, ArrayList<Long>> latencies = new HashMap<>();
+            workerLatencies.add(latencies);
+            Thread worker = new Thread(() -> runWorker(entries, nextEntry, startTime, latencies, errors), "WorkloadReplayer-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for(Thread worker : workers){
+            worker.join();
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+        HashMap<String, long[]> merged = new HashMap<>();
+        for(HashMap<String, ArrayList<Long>> latencies : workerLatencies){
+            for(Map.Entry<String, ArrayList<Long>> entry : latencies.entrySet()){
+                long[] previous = merged.getOrDefault(entry.getKey(), new long[0]);
+                long[] combined = new long[previous.length + entry.getValue().size()];
+                System.arraycopy(previous, 0, combined, 0, previous.length);
+                for(int i = 0; i < entry.getValue().size(); i++){
+                    combined[previous.length + i] = entry.getValue().get(i);
+                }
+                merged.put(entry.getKey(), combined);
+            }
+        }
+        return new ReplayReport(merged, elapsedTime, errors.get());
+    }
+
+    private ArrayList<WorkloadEntry> loadEntries() throws IOException{
+        ArrayList<WorkloadEntry> entries = new ArrayList<>();
+        try(BufferedReader reader = Files.newBufferedReader(workloadFile, StandardCharsets.UTF_8)){
+            String line;
+            while((line = reader.readLine()) != null){
+                if(!line.isEmpty()){
+                    entries.add(WorkloadEntry.parse(line));
+                }
+            }
+        }
+        entries.sort((a, b) -> Long.compare(a.getOffset(), b.getOffset()));
+        return entries;
+    }
+
+    private void runWorker(ArrayList<WorkloadEntry> entries, AtomicInteger nextEntry, long startTime, HashMap<String, ArrayList<Long>> latencies, AtomicLong errors){
+        SQLiteDatabase database = databaseFactory.get();
+        try{
+            int index;
+            while((index = nextEntry.getAndIncrement()) < entries.size()){
+                WorkloadEntry entry = entries.get(index);
+                long queryStart = System.nanoTime();
+                if(rate > 0){
+                    long scheduledTime = startTime + (long) (entry.getOffset() / rate);
+                    long wait = scheduledTime - queryStart;
+                    if(wait > 0){
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    }
+                    queryStart = scheduledTime;
+                }
+                try{
+                    if(entry.isUpdate()){
+                        database.executeSavedUpdateOrThrow(entry.getQueryName(), entry.getValues());
+                    }else{
+                        database.executeSavedQueryOrThrow(entry.getQueryName(), entry.getValues());
+                    }
+                }catch(SQLException|RuntimeException e){
+                    errors.incrementAndGet();
+                    continue;
+                }
+                latencies.computeIfAbsent(entry.getQueryName(), name -> new ArrayList<>()).add(System.nanoTime() - queryStart);
+            }
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }finally{
+            database.closeConnection();
+        }
+    }
+}